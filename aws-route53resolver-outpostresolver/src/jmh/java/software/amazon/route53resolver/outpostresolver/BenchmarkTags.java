@@ -0,0 +1,28 @@
+package software.amazon.route53resolver.outpostresolver;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+class BenchmarkTags {
+
+    private BenchmarkTags() {
+    }
+
+    static Set<Tag> modelTags(final String prefix, final int count) {
+        final Set<Tag> tags = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            tags.add(Tag.builder().key(prefix + "-key-" + i).value("value-" + i).build());
+        }
+        return tags;
+    }
+
+    static Map<String, String> requestTags(final String prefix, final int count) {
+        final Map<String, String> tags = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            tags.put(prefix + "-key-" + i, "value-" + i);
+        }
+        return tags;
+    }
+}
@@ -0,0 +1,114 @@
+package software.amazon.route53resolver.outpostresolver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.route53resolver.outpostresolver.simulator.PassThroughClientProxy;
+
+import java.util.concurrent.TimeUnit;
+
+//Complete doHandleRequest round trips against the stub client: the mutating handlers start and then settle on the
+//next poll, Read and List answer in one call. Requests are built inside the benchmark because the handlers write
+//the observed state back into the desired model.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class HandlerRoundTripBenchmark {
+
+    private static final Logger LOGGER = message -> { };
+
+    @Param({"0", "50"})
+    public int tagCount;
+
+    private final PassThroughClientProxy proxy = new PassThroughClientProxy();
+    //in-invocation polling stays off so no round trip ever sleeps
+    private final InvocationPoller poller = new InvocationPoller(false, 0L);
+    private final CreateHandler createHandler = new CreateHandler(new ExponentialBackoffPollingPolicy(), poller);
+    private final UpdateHandler updateHandler = new UpdateHandler(new ExponentialBackoffPollingPolicy(), poller);
+    private final DeleteHandler deleteHandler = new DeleteHandler(new ExponentialBackoffPollingPolicy(), poller);
+    private final ReadHandler readHandler = new ReadHandler();
+    private final ListHandler listHandler = new ListHandler(50, new TagHydrator(4));
+    private StubRoute53Resolver client;
+    private StubRoute53Resolver deletedClient;
+
+    @Setup
+    public void setup() {
+        client = new StubRoute53Resolver(tagCount, 50, false);
+        deletedClient = new StubRoute53Resolver(tagCount, 0, true);
+    }
+
+    @Benchmark
+    public ProgressEvent<ResourceModel, CallbackContext> create() {
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model())
+                .desiredResourceTags(BenchmarkTags.requestTags("stack", tagCount))
+                .clientRequestToken("token")
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> started = createHandler.doHandleRequest(proxy, request, null, LOGGER, client);
+        return createHandler.doHandleRequest(proxy, request, started.getCallbackContext(), LOGGER, client);
+    }
+
+    @Benchmark
+    public ProgressEvent<ResourceModel, CallbackContext> update() {
+        final ResourceModel previous = model();
+        previous.setTags(BenchmarkTags.modelTags("previous", tagCount));
+        final ResourceModel desired = model();
+        desired.setTags(BenchmarkTags.modelTags("desired", tagCount));
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(desired)
+                .previousResourceState(previous)
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> started = updateHandler.doHandleRequest(proxy, request, null, LOGGER, client);
+        return updateHandler.doHandleRequest(proxy, request, started.getCallbackContext(), LOGGER, client);
+    }
+
+    @Benchmark
+    public ProgressEvent<ResourceModel, CallbackContext> delete() {
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model())
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> started = deleteHandler.doHandleRequest(proxy, request, null, LOGGER, deletedClient);
+        return deleteHandler.doHandleRequest(proxy, request, started.getCallbackContext(), LOGGER, deletedClient);
+    }
+
+    @Benchmark
+    public ProgressEvent<ResourceModel, CallbackContext> read() {
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model())
+                .build();
+        return readHandler.doHandleRequest(proxy, request, null, LOGGER, client);
+    }
+
+    @Benchmark
+    public ProgressEvent<ResourceModel, CallbackContext> list() {
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(ResourceModel.builder().build())
+                .build();
+        return listHandler.doHandleRequest(proxy, request, null, LOGGER, client);
+    }
+
+    private static ResourceModel model() {
+        return ResourceModel.builder()
+                .id(StubRoute53Resolver.ID)
+                .arn(StubRoute53Resolver.ARN)
+                .outpostArn(StubRoute53Resolver.OUTPOST_ARN)
+                .name("benchmark")
+                .instanceCount(4)
+                .preferredInstanceType("m5.large")
+                .build();
+    }
+}
@@ -0,0 +1,67 @@
+package software.amazon.route53resolver.outpostresolver;
+
+import com.amazonaws.services.route53resolver.model.OutpostResolver;
+import com.amazonaws.services.route53resolver.model.OutpostResolverStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.route53resolver.outpostresolver.simulator.PassThroughClientProxy;
+import software.amazon.route53resolver.outpostresolver.util.OutpostResolverUtil;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ModelMapperBenchmark {
+
+    @Param({"0", "50", "200"})
+    public int tagCount;
+
+    private final OutpostResolver resolver = StubRoute53Resolver.resolver(OutpostResolverStatus.OPERATIONAL);
+    private StubRoute53Resolver client;
+    private ResolverApiInvoker invoker;
+    private Set<Tag> knownTags;
+
+    @Setup
+    public void setup() {
+        client = new StubRoute53Resolver(tagCount, 0, false);
+        invoker = new ResolverApiInvoker(new PassThroughClientProxy());
+        knownTags = BenchmarkTags.modelTags("tag", tagCount);
+    }
+
+    //fields only, the mapping Delete and the first Update poll do
+    @Benchmark
+    public ResourceModel mapWithoutTags() {
+        final ResourceModel model = new ResourceModel();
+        OutpostResolverUtil.outpostResolverToModelMapper(model, resolver, null, null);
+        return model;
+    }
+
+    //fields plus a ListTagsForResource read and translation, the mapping of a settled resolver
+    @Benchmark
+    public ResourceModel mapWithTagRead() {
+        final ResourceModel model = new ResourceModel();
+        OutpostResolverUtil.outpostResolverToModelMapper(model, resolver, invoker, client);
+        return model;
+    }
+
+    @Benchmark
+    public ResourceModel mapWithKnownTags() {
+        final ResourceModel model = new ResourceModel();
+        OutpostResolverUtil.outpostResolverToModelMapper(model, resolver, knownTags);
+        return model;
+    }
+}
@@ -0,0 +1,107 @@
+package software.amazon.route53resolver.outpostresolver;
+
+import com.amazonaws.services.route53resolver.AbstractAmazonRoute53Resolver;
+import com.amazonaws.services.route53resolver.model.CreateOutpostResolverRequest;
+import com.amazonaws.services.route53resolver.model.CreateOutpostResolverResult;
+import com.amazonaws.services.route53resolver.model.DeleteOutpostResolverRequest;
+import com.amazonaws.services.route53resolver.model.DeleteOutpostResolverResult;
+import com.amazonaws.services.route53resolver.model.GetOutpostResolverRequest;
+import com.amazonaws.services.route53resolver.model.GetOutpostResolverResult;
+import com.amazonaws.services.route53resolver.model.ListOutpostResolversRequest;
+import com.amazonaws.services.route53resolver.model.ListOutpostResolversResult;
+import com.amazonaws.services.route53resolver.model.ListTagsForResourceRequest;
+import com.amazonaws.services.route53resolver.model.ListTagsForResourceResult;
+import com.amazonaws.services.route53resolver.model.OutpostResolver;
+import com.amazonaws.services.route53resolver.model.OutpostResolverStatus;
+import com.amazonaws.services.route53resolver.model.TagResourceRequest;
+import com.amazonaws.services.route53resolver.model.TagResourceResult;
+import com.amazonaws.services.route53resolver.model.UntagResourceRequest;
+import com.amazonaws.services.route53resolver.model.UntagResourceResult;
+import com.amazonaws.services.route53resolver.model.UpdateOutpostResolverRequest;
+import com.amazonaws.services.route53resolver.model.UpdateOutpostResolverResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+//Answers every call with prebuilt results: mutations report the transitional status and the next read reports
+//the resolver as settled, so one start plus one poll completes each handler.
+class StubRoute53Resolver extends AbstractAmazonRoute53Resolver {
+
+    static final String ID = "rslvr-op-0123456789abcdef";
+    static final String ARN = "arn:aws:route53resolver:us-west-2:123456789012:outpost-resolver/" + ID;
+    static final String OUTPOST_ARN = "arn:aws:outposts:us-west-2:123456789012:outpost/op-0123456789abcdef";
+
+    private final ListTagsForResourceResult tags;
+    private final ListOutpostResolversResult listResult;
+    //once deleted, reads come back empty the way the service reports a finished delete
+    private final boolean deleted;
+
+    StubRoute53Resolver(final int tagCount, final int listSize, final boolean deleted) {
+        final List<com.amazonaws.services.route53resolver.model.Tag> resolverTags = new ArrayList<>(tagCount);
+        for (int i = 0; i < tagCount; i++) {
+            resolverTags.add(new com.amazonaws.services.route53resolver.model.Tag().withKey("key-" + i).withValue("value-" + i));
+        }
+        this.tags = new ListTagsForResourceResult().withTags(resolverTags);
+        final List<OutpostResolver> resolvers = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            resolvers.add(resolver(OutpostResolverStatus.OPERATIONAL).withId(ID + "-" + i));
+        }
+        this.listResult = new ListOutpostResolversResult().withOutpostResolvers(resolvers);
+        this.deleted = deleted;
+    }
+
+    static OutpostResolver resolver(final OutpostResolverStatus status) {
+        return new OutpostResolver()
+                .withId(ID)
+                .withArn(ARN)
+                .withOutpostArn(OUTPOST_ARN)
+                .withName("benchmark")
+                .withInstanceCount(4)
+                .withPreferredInstanceType("m5.large")
+                .withCreatorRequestId("token")
+                .withCreationTime("2023-01-01T00:00:00Z")
+                .withModificationTime("2023-01-01T00:00:00Z")
+                .withStatus(status.toString());
+    }
+
+    @Override
+    public CreateOutpostResolverResult createOutpostResolver(final CreateOutpostResolverRequest request) {
+        return new CreateOutpostResolverResult().withOutpostResolver(resolver(OutpostResolverStatus.CREATING));
+    }
+
+    @Override
+    public UpdateOutpostResolverResult updateOutpostResolver(final UpdateOutpostResolverRequest request) {
+        return new UpdateOutpostResolverResult().withOutpostResolver(resolver(OutpostResolverStatus.UPDATING));
+    }
+
+    @Override
+    public DeleteOutpostResolverResult deleteOutpostResolver(final DeleteOutpostResolverRequest request) {
+        return new DeleteOutpostResolverResult().withOutpostResolver(resolver(OutpostResolverStatus.DELETING));
+    }
+
+    @Override
+    public GetOutpostResolverResult getOutpostResolver(final GetOutpostResolverRequest request) {
+        return deleted ? new GetOutpostResolverResult()
+                : new GetOutpostResolverResult().withOutpostResolver(resolver(OutpostResolverStatus.OPERATIONAL));
+    }
+
+    @Override
+    public ListOutpostResolversResult listOutpostResolvers(final ListOutpostResolversRequest request) {
+        return listResult;
+    }
+
+    @Override
+    public ListTagsForResourceResult listTagsForResource(final ListTagsForResourceRequest request) {
+        return tags;
+    }
+
+    @Override
+    public TagResourceResult tagResource(final TagResourceRequest request) {
+        return new TagResourceResult();
+    }
+
+    @Override
+    public UntagResourceResult untagResource(final UntagResourceRequest request) {
+        return new UntagResourceResult();
+    }
+}
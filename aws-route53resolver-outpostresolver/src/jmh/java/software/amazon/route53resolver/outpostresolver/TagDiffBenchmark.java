@@ -0,0 +1,81 @@
+package software.amazon.route53resolver.outpostresolver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.route53resolver.outpostresolver.simulator.PassThroughClientProxy;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+//The tag diff UpdateHandler runs once an update settles, on its own and with the Tag/Untag calls it produces.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TagDiffBenchmark {
+
+    @Param({"0", "10", "50", "200"})
+    public int tagCount;
+
+    private final TagReconciler tagReconciler = new TagReconciler();
+    private final UpdateHandler handler = new UpdateHandler();
+    private final PassThroughClientProxy proxy = new PassThroughClientProxy();
+    private StubRoute53Resolver client;
+    private Set<Tag> previousTags;
+    private Set<Tag> desiredTags;
+    private ResourceHandlerRequest<ResourceModel> request;
+
+    @Setup
+    public void setup() {
+        client = new StubRoute53Resolver(tagCount, 0, false);
+        //half the tags are kept, a quarter change value and a quarter are replaced by new keys
+        previousTags = BenchmarkTags.modelTags("tag", tagCount);
+        desiredTags = new HashSet<>();
+        for (Tag tag : previousTags) {
+            final int index = Integer.parseInt(tag.getKey().substring("tag-key-".length()));
+            if (index % 4 == 0) {
+                desiredTags.add(Tag.builder().key(tag.getKey()).value("changed").build());
+            } else if (index % 4 == 1) {
+                desiredTags.add(Tag.builder().key("new-" + tag.getKey()).value(tag.getValue()).build());
+            } else {
+                desiredTags.add(tag);
+            }
+        }
+        request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model(desiredTags))
+                .previousResourceState(model(previousTags))
+                .build();
+    }
+
+    @Benchmark
+    public TagReconciler.TagChanges diff() {
+        return tagReconciler.diff(previousTags, desiredTags);
+    }
+
+    @Benchmark
+    public void updateTagResource() {
+        handler.tagResource(request, proxy, client, request.getDesiredResourceState(), request.getPreviousResourceState());
+    }
+
+    private static ResourceModel model(final Set<Tag> tags) {
+        return ResourceModel.builder()
+                .id(StubRoute53Resolver.ID)
+                .arn(StubRoute53Resolver.ARN)
+                .outpostArn(StubRoute53Resolver.OUTPOST_ARN)
+                .tags(tags)
+                .build();
+    }
+}
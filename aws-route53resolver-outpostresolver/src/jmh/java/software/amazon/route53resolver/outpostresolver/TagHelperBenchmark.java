@@ -0,0 +1,56 @@
+package software.amazon.route53resolver.outpostresolver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TagHelperBenchmark {
+
+    //CreateOutpostResolver and TagResource accept up to 200 tags
+    @Param({"0", "10", "50", "200"})
+    public int tagCount;
+
+    private Set<Tag> modelTags;
+    private Map<String, String> requestTags;
+    private ResourceModel model;
+
+    @Setup
+    public void setup() {
+        modelTags = BenchmarkTags.modelTags("model", tagCount);
+        requestTags = BenchmarkTags.requestTags("stack", tagCount);
+        model = ResourceModel.builder().tags(modelTags).build();
+    }
+
+    @Benchmark
+    public Set<com.amazonaws.services.route53resolver.model.Tag> translateTags() {
+        return TagHelper.translateTags(modelTags);
+    }
+
+    @Benchmark
+    public Set<Tag> tagsFromRequest() {
+        return TagHelper.tagsFromRequest(requestTags);
+    }
+
+    @Benchmark
+    public Set<Tag> getAllResourceTags() {
+        return TagHelper.getAllResourceTags(model, requestTags);
+    }
+}
@@ -0,0 +1,119 @@
+package software.amazon.route53resolver.outpostresolver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+//The tag conversions Create and Update run, once through the HashSet and LinkedHashMap copies the handlers used to
+//make and once through TagSet. Run with -prof gc and compare gc.alloc.rate.norm, the bytes allocated per operation.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TagSetBenchmark {
+
+    @Param({"0", "10", "50", "200"})
+    public int tagCount;
+
+    private ResourceModel previousModel;
+    private ResourceModel desiredModel;
+    private Map<String, String> stackTags;
+
+    @Setup
+    public void setup() {
+        previousModel = ResourceModel.builder().tags(BenchmarkTags.modelTags("tag", tagCount)).build();
+        final Set<Tag> desiredTags = new HashSet<>();
+        for (Tag tag : previousModel.getTags()) {
+            final int index = Integer.parseInt(tag.getKey().substring("tag-key-".length()));
+            desiredTags.add(index % 4 == 0 ? Tag.builder().key(tag.getKey()).value("changed").build() : tag);
+        }
+        desiredModel = ResourceModel.builder().tags(desiredTags).build();
+        stackTags = BenchmarkTags.requestTags("stack", tagCount);
+    }
+
+    //merge the model and stack tags, chunk them and build the SDK tags of the create request
+    @Benchmark
+    public List<com.amazonaws.services.route53resolver.model.Tag> createTagsWithHashSets() {
+        final Set<Tag> all = new HashSet<>(desiredModel.getTags());
+        all.addAll(stackTags.entrySet().stream()
+                .map(tag -> Tag.builder().key(tag.getKey()).value(tag.getValue()).build())
+                .collect(Collectors.toSet()));
+        final Map<String, String> byKey = new LinkedHashMap<>();
+        for (Tag tag : all) {
+            byKey.put(tag.getKey(), tag.getValue());
+        }
+        final List<com.amazonaws.services.route53resolver.model.Tag> sdkTags = new ArrayList<>();
+        for (Map.Entry<String, String> tag : byKey.entrySet()) {
+            sdkTags.add(new com.amazonaws.services.route53resolver.model.Tag().withKey(tag.getKey()).withValue(tag.getValue()));
+        }
+        return sdkTags;
+    }
+
+    @Benchmark
+    public List<com.amazonaws.services.route53resolver.model.Tag> createTagsWithTagSet() {
+        return TagSet.resourceTags(desiredModel, stackTags).toSdkTags();
+    }
+
+    //the diff Update works out once the resolver settles
+    @Benchmark
+    public int updateDiffWithHashSets() {
+        final Map<String, String> previous = toMap(merge(previousModel.getTags(), stackTags));
+        final Map<String, String> desired = toMap(merge(desiredModel.getTags(), stackTags));
+        final Map<String, String> tagsToAdd = new LinkedHashMap<>();
+        for (Map.Entry<String, String> tag : desired.entrySet()) {
+            if (!Objects.equals(previous.get(tag.getKey()), tag.getValue()) || !previous.containsKey(tag.getKey())) {
+                tagsToAdd.put(tag.getKey(), tag.getValue());
+            }
+        }
+        final List<String> keysToRemove = new ArrayList<>();
+        for (String key : previous.keySet()) {
+            if (!desired.containsKey(key)) {
+                keysToRemove.add(key);
+            }
+        }
+        return tagsToAdd.size() + keysToRemove.size();
+    }
+
+    @Benchmark
+    public int updateDiffWithTagSet() {
+        final TagSet previous = TagSet.resourceTags(previousModel, stackTags);
+        final TagSet desired = TagSet.resourceTags(desiredModel, stackTags);
+        return desired.changedFrom(previous).size() + previous.keysMissingFrom(desired).size();
+    }
+
+    private static Set<Tag> merge(final Set<Tag> modelTags, final Map<String, String> requestTags) {
+        final Set<Tag> all = new HashSet<>(modelTags);
+        for (Map.Entry<String, String> tag : requestTags.entrySet()) {
+            all.add(Tag.builder().key(tag.getKey()).value(tag.getValue()).build());
+        }
+        return all;
+    }
+
+    private static Map<String, String> toMap(final Set<Tag> tags) {
+        final Map<String, String> map = new LinkedHashMap<>();
+        for (Tag tag : tags) {
+            map.put(tag.getKey(), tag.getValue());
+        }
+        return map;
+    }
+}
@@ -0,0 +1,150 @@
+package software.amazon.route53resolver.outpostresolver;
+
+import software.amazon.route53resolver.outpostresolver.util.EnvironmentUtil;
+
+import java.util.function.LongSupplier;
+
+//Caps how many Route53Resolver calls this container has in flight at once. The limit follows AIMD: it grows by
+//roughly one slot per limit's worth of successful calls and is cut back when the service throttles or latency
+//jumps well above its usual level, so bulk work settles just under the account's request rate instead of
+//oscillating through throttling storms.
+public class AdaptiveConcurrencyLimiter {
+
+    private static final String CONCURRENCY_LIMIT_INITIAL = "CONCURRENCY_LIMIT_INITIAL";
+    private static final String CONCURRENCY_LIMIT_MIN = "CONCURRENCY_LIMIT_MIN";
+    private static final String CONCURRENCY_LIMIT_MAX = "CONCURRENCY_LIMIT_MAX";
+    private static final int DEFAULT_INITIAL_LIMIT = 10;
+    private static final int DEFAULT_MIN_LIMIT = 1;
+    //matches the client connection pool, more than that would only queue inside the SDK
+    private static final int DEFAULT_MAX_LIMIT = 50;
+
+    private static final double THROTTLE_BACKOFF = 0.5;
+    private static final double LATENCY_BACKOFF = 0.9;
+    //a success slower than this multiple of the smoothed latency counts as congestion
+    private static final double LATENCY_SPIKE_FACTOR = 2.0;
+    private static final double LATENCY_SMOOTHING = 0.1;
+    private static final int LATENCY_WARMUP_SAMPLES = 10;
+    //calls already in flight when the first throttle arrives tend to be throttled too, one cut covers them all
+    private static final long DECREASE_COOLDOWN_MILLIS = 1_000L;
+
+    private static final AdaptiveConcurrencyLimiter SHARED = new AdaptiveConcurrencyLimiter(
+            EnvironmentUtil.getInt(CONCURRENCY_LIMIT_INITIAL, DEFAULT_INITIAL_LIMIT),
+            EnvironmentUtil.getInt(CONCURRENCY_LIMIT_MIN, DEFAULT_MIN_LIMIT),
+            EnvironmentUtil.getInt(CONCURRENCY_LIMIT_MAX, DEFAULT_MAX_LIMIT));
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final LongSupplier clock;
+
+    private double limit;
+    private int inFlight;
+    private int waiting;
+    private double smoothedLatencyMillis;
+    private long latencySamples;
+    private long lastDecrease = Long.MIN_VALUE;
+
+    public AdaptiveConcurrencyLimiter(final int initialLimit, final int minLimit, final int maxLimit) {
+        this(initialLimit, minLimit, maxLimit, System::currentTimeMillis);
+    }
+
+    AdaptiveConcurrencyLimiter(final int initialLimit, final int minLimit, final int maxLimit, final LongSupplier clock) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.max(this.minLimit, Math.min(this.maxLimit, initialLimit));
+        this.clock = clock;
+    }
+
+    public static AdaptiveConcurrencyLimiter shared() {
+        return SHARED;
+    }
+
+    //waits up to maxWaitMillis for a slot, returns false if none freed up in time
+    public synchronized boolean acquire(final long maxWaitMillis) throws InterruptedException {
+        final long deadline = clock.getAsLong() + maxWaitMillis;
+        waiting++;
+        try {
+            while (inFlight >= getLimit()) {
+                final long remaining = deadline - clock.getAsLong();
+                if (remaining <= 0) {
+                    return false;
+                }
+                wait(remaining);
+            }
+            inFlight++;
+            return true;
+        } finally {
+            waiting--;
+        }
+    }
+
+    //takes a slot only if one is free right now, for callers on shared threads that must never wait here
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= getLimit()) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    public synchronized void onSuccess(final long latencyMillis) {
+        release();
+        final boolean spike = latencySamples >= LATENCY_WARMUP_SAMPLES
+                && latencyMillis > smoothedLatencyMillis * LATENCY_SPIKE_FACTOR;
+        //spikes are kept out of the baseline so a slow period does not become the new normal
+        if (!spike) {
+            smoothedLatencyMillis = latencySamples == 0 ? latencyMillis
+                    : smoothedLatencyMillis + LATENCY_SMOOTHING * (latencyMillis - smoothedLatencyMillis);
+            latencySamples++;
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        } else {
+            decrease(LATENCY_BACKOFF);
+        }
+        notifyAll();
+    }
+
+    public synchronized void onThrottled() {
+        release();
+        decrease(THROTTLE_BACKOFF);
+        notifyAll();
+    }
+
+    //any other failure says nothing about capacity, the slot is just handed back
+    public synchronized void onFailure() {
+        release();
+        notifyAll();
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized int getQueueDepth() {
+        return waiting;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("limit=%d inFlight=%d queued=%d", getLimit(), inFlight, waiting);
+    }
+
+    private void release() {
+        inFlight = Math.max(0, inFlight - 1);
+    }
+
+    private void decrease(final double factor) {
+        final long now = clock.getAsLong();
+        if (lastDecrease != Long.MIN_VALUE && now - lastDecrease < DECREASE_COOLDOWN_MILLIS) {
+            return;
+        }
+        lastDecrease = now;
+        limit = Math.max(minLimit, limit * factor);
+    }
+}
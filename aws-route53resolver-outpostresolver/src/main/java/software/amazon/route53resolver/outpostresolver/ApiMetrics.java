@@ -0,0 +1,190 @@
+package software.amazon.route53resolver.outpostresolver;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.route53resolver.outpostresolver.util.EnvironmentUtil;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+//Collects latency, error and retry counts for every Route53Resolver call made during one handler invocation and
+//writes them out as CloudWatch Embedded Metric Format, one log line per operation plus one for the invocation.
+//Comparing the summed API latency with the invocation duration shows how much time the handler itself adds.
+public class ApiMetrics {
+
+    private static final String METRICS_ENABLED = "METRICS_ENABLED";
+    private static final String METRICS_NAMESPACE = "METRICS_NAMESPACE";
+    private static final String DEFAULT_NAMESPACE = "Route53Resolver/OutpostResolverHandler";
+    //EMF accepts at most 100 distinct values per metric in one document
+    private static final int MAX_VALUES_PER_DOCUMENT = 100;
+
+    private final String action;
+    private final boolean enabled;
+    private final String namespace;
+    private final long startTime;
+    private final Map<String, OperationMetrics> operations = new LinkedHashMap<>();
+    private int cacheHits;
+    private int cacheMisses;
+
+    public ApiMetrics(final String action) {
+        this(action, EnvironmentUtil.getBoolean(METRICS_ENABLED, true), EnvironmentUtil.getString(METRICS_NAMESPACE, DEFAULT_NAMESPACE));
+    }
+
+    public ApiMetrics(final String action, final boolean enabled, final String namespace) {
+        this.action = action;
+        this.enabled = enabled;
+        this.namespace = namespace;
+        this.startTime = System.currentTimeMillis();
+    }
+
+    private static class OperationMetrics {
+        //latency in milliseconds to the number of calls that took that long
+        private final TreeMap<Long, Integer> latencies = new TreeMap<>();
+        private final Map<String, Integer> errors = new TreeMap<>();
+        private int calls;
+        private int retries;
+        //calls this invocation did not make because an identical one from another invocation was already running
+        private int shared;
+        private long totalLatencyMillis;
+    }
+
+    //tag reads for List run on several threads, so every access to the operation map is synchronized
+    public synchronized void recordCall(final String operation, final long latencyMillis, final RuntimeException error) {
+        final OperationMetrics metrics = operation(operation);
+        metrics.calls++;
+        metrics.totalLatencyMillis += latencyMillis;
+        metrics.latencies.merge(latencyMillis, 1, Integer::sum);
+        if (error != null) {
+            metrics.errors.merge(error.getClass().getSimpleName(), 1, Integer::sum);
+        }
+    }
+
+    public synchronized void recordRetry(final String operation) {
+        operation(operation).retries++;
+    }
+
+    public synchronized void recordSharedCall(final String operation) {
+        operation(operation).shared++;
+    }
+
+    public synchronized void recordCacheLookup(final boolean hit) {
+        if (hit) {
+            cacheHits++;
+        } else {
+            cacheMisses++;
+        }
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public synchronized int getCallCount(final String operation) {
+        final OperationMetrics metrics = operations.get(operation);
+        return metrics == null ? 0 : metrics.calls;
+    }
+
+    public synchronized int getSharedCallCount(final String operation) {
+        final OperationMetrics metrics = operations.get(operation);
+        return metrics == null ? 0 : metrics.shared;
+    }
+
+    public synchronized List<String> toEmfDocuments() {
+        final long now = System.currentTimeMillis();
+        final List<String> documents = new ArrayList<>();
+        long apiLatencyMillis = 0L;
+        for (Map.Entry<String, OperationMetrics> entry : operations.entrySet()) {
+            final OperationMetrics metrics = entry.getValue();
+            apiLatencyMillis += metrics.totalLatencyMillis;
+            final List<Map.Entry<Long, Integer>> latencies = new ArrayList<>(metrics.latencies.entrySet());
+            //an operation this invocation only ever shared still gets its counts, just without a latency
+            for (int from = 0; from == 0 || from < latencies.size(); from += MAX_VALUES_PER_DOCUMENT) {
+                final JSONObject document = document(now, Collections.singletonList("Operation"))
+                        .put("Operation", entry.getKey());
+                if (!latencies.isEmpty()) {
+                    addMetric(document, "Latency", "Milliseconds",
+                            histogram(latencies.subList(from, Math.min(latencies.size(), from + MAX_VALUES_PER_DOCUMENT))));
+                }
+                //counts go out once, with the first slice of latencies
+                if (from == 0) {
+                    addMetric(document, "Calls", "Count", metrics.calls);
+                    addMetric(document, "Retries", "Count", metrics.retries);
+                    addMetric(document, "SharedCalls", "Count", metrics.shared);
+                    addMetric(document, "Errors", "Count", metrics.errors.values().stream().mapToInt(Integer::intValue).sum());
+                    for (Map.Entry<String, Integer> error : metrics.errors.entrySet()) {
+                        addMetric(document, error.getKey(), "Count", error.getValue());
+                    }
+                }
+                documents.add(document.toString());
+            }
+        }
+        final JSONObject invocation = document(now, Collections.emptyList());
+        addMetric(invocation, "InvocationDuration", "Milliseconds", now - startTime);
+        addMetric(invocation, "ApiLatency", "Milliseconds", apiLatencyMillis);
+        //only invocations that looked at the read cache report it, so the hit rate is not diluted by the others
+        if (cacheHits + cacheMisses > 0) {
+            addMetric(invocation, "ReadCacheHits", "Count", cacheHits);
+            addMetric(invocation, "ReadCacheMisses", "Count", cacheMisses);
+        }
+        documents.add(invocation.toString());
+        return documents;
+    }
+
+    public void flush(final Logger logger) {
+        if (!enabled) {
+            return;
+        }
+        for (String document : toEmfDocuments()) {
+            logger.log(document);
+        }
+    }
+
+    private OperationMetrics operation(final String operation) {
+        return operations.computeIfAbsent(operation, name -> new OperationMetrics());
+    }
+
+    private JSONObject document(final long timestamp, final List<String> extraDimensions) {
+        final List<String> dimensions = new ArrayList<>();
+        dimensions.add("Action");
+        dimensions.addAll(extraDimensions);
+        final JSONObject directive = new JSONObject()
+                .put("Namespace", namespace)
+                .put("Dimensions", new JSONArray().put(new JSONArray(dimensions)))
+                .put("Metrics", new JSONArray());
+        return new JSONObject()
+                .put("_aws", new JSONObject()
+                        .put("Timestamp", timestamp)
+                        .put("CloudWatchMetrics", new JSONArray().put(directive)))
+                .put("Action", action);
+    }
+
+    private static void addMetric(final JSONObject document, final String name, final String unit, final Object value) {
+        document.getJSONObject("_aws").getJSONArray("CloudWatchMetrics").getJSONObject(0).getJSONArray("Metrics")
+                .put(new JSONObject().put("Name", name).put("Unit", unit));
+        document.put(name, value);
+    }
+
+    private static JSONObject histogram(final List<Map.Entry<Long, Integer>> latencies) {
+        final JSONArray values = new JSONArray();
+        final JSONArray counts = new JSONArray();
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        long sum = 0L;
+        int count = 0;
+        for (Map.Entry<Long, Integer> latency : latencies) {
+            values.put(latency.getKey());
+            counts.put(latency.getValue());
+            min = Math.min(min, latency.getKey());
+            max = Math.max(max, latency.getKey());
+            sum += latency.getKey() * latency.getValue();
+            count += latency.getValue();
+        }
+        return new JSONObject().put("Values", values).put("Counts", counts)
+                .put("Min", min).put("Max", max).put("Sum", sum).put("Count", count);
+    }
+}
@@ -0,0 +1,74 @@
+package software.amazon.route53resolver.outpostresolver;
+
+import com.amazonaws.services.route53resolver.model.OutpostResolver;
+import software.amazon.awssdk.services.route53resolver.Route53ResolverAsyncClient;
+import software.amazon.awssdk.services.route53resolver.model.GetOutpostResolverRequest;
+import software.amazon.awssdk.services.route53resolver.model.ListTagsForResourceRequest;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+//Starts the read-only calls on the SDK v2 async client so independent ones overlap, for example the resolver and
+//its tags in Read or the tags of every resolver on a List page. Results come back as the SDK v1 model and failures
+//as SDK v1 exceptions, so the handlers map them exactly like the blocking path.
+public class AsyncResolverReader {
+
+    private final Route53ResolverAsyncClient client;
+    private final ResolverApiInvoker invoker;
+
+    public AsyncResolverReader(final Route53ResolverAsyncClient client, final ResolverApiInvoker invoker) {
+        this.client = client;
+        this.invoker = invoker;
+    }
+
+    public CompletableFuture<OutpostResolver> getOutpostResolver(final String id) {
+        return invoker.invokeAsync(GetOutpostResolverRequest.builder().id(id).build(), client::getOutpostResolver)
+                .thenApply(response -> toV1(response.outpostResolver()));
+    }
+
+    //pages are still read one after another, only the first one overlaps with whatever the caller started next to it.
+    //Cancelling the returned future stops the pagination after the page in flight
+    public CompletableFuture<Set<Tag>> listTags(final String arn) {
+        final CompletableFuture<Set<Tag>> result = new CompletableFuture<>();
+        listTags(arn, null, new HashSet<>(), result);
+        return result;
+    }
+
+    private void listTags(final String arn, final String nextToken, final Set<Tag> tags, final CompletableFuture<Set<Tag>> result) {
+        final ListTagsForResourceRequest request = ListTagsForResourceRequest.builder()
+                .resourceArn(arn)
+                .nextToken(nextToken)
+                .build();
+        invoker.invokeAsync(request, client::listTagsForResource).whenComplete((response, failure) -> {
+            if (result.isDone()) {
+                return;
+            }
+            if (failure != null) {
+                result.completeExceptionally(failure);
+                return;
+            }
+            response.tags().forEach(tag -> tags.add(Tag.builder().key(tag.key()).value(tag.value()).build()));
+            if (response.nextToken() == null) {
+                result.complete(tags);
+            } else {
+                listTags(arn, response.nextToken(), tags, result);
+            }
+        });
+    }
+
+    static OutpostResolver toV1(final software.amazon.awssdk.services.route53resolver.model.OutpostResolver resolver) {
+        return resolver == null ? null : new OutpostResolver()
+                .withId(resolver.id())
+                .withArn(resolver.arn())
+                .withOutpostArn(resolver.outpostArn())
+                .withInstanceCount(resolver.instanceCount())
+                .withPreferredInstanceType(resolver.preferredInstanceType())
+                .withName(resolver.name())
+                .withStatus(resolver.statusAsString())
+                .withStatusMessage(resolver.statusMessage())
+                .withCreatorRequestId(resolver.creatorRequestId())
+                .withCreationTime(resolver.creationTime())
+                .withModificationTime(resolver.modificationTime());
+    }
+}
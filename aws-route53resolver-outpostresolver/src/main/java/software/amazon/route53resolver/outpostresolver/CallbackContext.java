@@ -1,8 +1,12 @@
 package software.amazon.route53resolver.outpostresolver;
 
+import com.amazonaws.services.route53resolver.model.OutpostResolver;
 import lombok.Builder;
 import software.amazon.cloudformation.proxy.StdCallbackContext;
 
+import java.util.List;
+import java.util.Set;
+
 @lombok.Getter
 @lombok.Setter
 @lombok.ToString
@@ -20,4 +24,45 @@ public class CallbackContext extends StdCallbackContext {
     private String listOperationNextToken;
 
     private String outpostResolverId;
+
+    //last observed resolver ARN and status, reused instead of reading the resolver again
+    private String outpostResolverArn;
+
+    private String outpostResolverStatus;
+
+    private Long stabilizationStartTime;
+
+    private int stabilizationAttempts;
+
+    //ModificationTime and Status of the last observed resolver
+    private String observedFingerprint;
+
+    //tag read that ran out of invocation, the token of the next page and the tags read before it
+    private String tagsNextToken;
+
+    private Set<Tag> tagsRead;
+
+    //how many checkpoints in a row of the tag read or of Delete's endpoint scan were forced by throttling, sets the
+    //delay before it carries on
+    private int throttledCheckpoints;
+
+    //Delete's scan for resolver endpoints still on the outpost: where it stopped, what it found so far and whether
+    //it went through every page
+    private String endpointScanNextToken;
+
+    private List<String> dependentEndpointIds;
+
+    private boolean endpointScanComplete;
+
+    //true when the resolver changed since the previous observation, see ResolverModelMapper.fingerprint
+    public boolean observe(final OutpostResolver resolver) {
+        if (resolver.getArn() != null) {
+            outpostResolverArn = resolver.getArn();
+        }
+        outpostResolverStatus = resolver.getStatus();
+        final String fingerprint = ResolverModelMapper.fingerprint(resolver);
+        final boolean changed = !fingerprint.equals(observedFingerprint);
+        observedFingerprint = fingerprint;
+        return changed;
+    }
 }
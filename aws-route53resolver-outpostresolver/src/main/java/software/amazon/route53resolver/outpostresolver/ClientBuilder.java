@@ -1,8 +1,19 @@
 package software.amazon.route53resolver.outpostresolver;
 
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.retry.PredefinedRetryPolicies;
 import com.amazonaws.services.route53resolver.AmazonRoute53ResolverClientBuilder;
 import com.amazonaws.services.route53resolver.AmazonRoute53Resolver;
-import com.amazonaws.util.StringUtils;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.core.retry.RetryPolicy;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.route53resolver.Route53ResolverAsyncClient;
+import software.amazon.route53resolver.outpostresolver.util.EnvironmentUtil;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 
 public class ClientBuilder {
@@ -10,16 +21,101 @@ public class ClientBuilder {
     private static final String AWS_REGION = "AWS_REGION";
     private static final String DEFAULT_AWS_REGION = "us-west-2";
 
-    public AmazonRoute53Resolver getClient() {
-        final AmazonRoute53ResolverClientBuilder awsRoute53ResolverBuilder = AmazonRoute53ResolverClientBuilder.standard();
-        awsRoute53ResolverBuilder.withRegion(getEnvironmentValue(AWS_REGION, DEFAULT_AWS_REGION));
+    //connection pool tuning, each value can be overridden through the function environment
+    private static final String MAX_CONNECTIONS = "CLIENT_MAX_CONNECTIONS";
+    private static final int DEFAULT_MAX_CONNECTIONS = 50;
+    private static final String CONNECTION_MAX_IDLE_MILLIS = "CLIENT_CONNECTION_MAX_IDLE_MILLIS";
+    private static final long DEFAULT_CONNECTION_MAX_IDLE_MILLIS = 60_000L;
+    private static final String VALIDATE_AFTER_INACTIVITY_MILLIS = "CLIENT_VALIDATE_AFTER_INACTIVITY_MILLIS";
+    private static final int DEFAULT_VALIDATE_AFTER_INACTIVITY_MILLIS = 2_000;
+    //reads that can overlap use the SDK v2 async client when this is set, everything else stays on the v1 client
+    private static final String ASYNC_CLIENT_ENABLED = "ASYNC_CLIENT_ENABLED";
+
+    //the client is thread safe and AmazonWebServicesClientProxy injects credentials on every request,
+    //so one client per region is shared by every invocation that lands on this container
+    private static final ConcurrentMap<String, AmazonRoute53Resolver> CLIENTS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, Route53ResolverAsyncClient> ASYNC_CLIENTS = new ConcurrentHashMap<>();
+    private static final ClientPoolStatistics POOL_STATISTICS = new ClientPoolStatistics();
+
+    private ClientBuilder() {
+    }
+
+    public static AmazonRoute53Resolver getClient() {
+        return getClient(EnvironmentUtil.getString(AWS_REGION, DEFAULT_AWS_REGION));
+    }
+
+    public static AmazonRoute53Resolver getClient(final String region) {
+        return CLIENTS.computeIfAbsent(region, ClientBuilder::buildClient);
+    }
+
+    //null unless the async path is enabled on the function, handlers then stay on the blocking client
+    public static Route53ResolverAsyncClient getAsyncClient() {
+        return EnvironmentUtil.getBoolean(ASYNC_CLIENT_ENABLED, false)
+                ? getAsyncClient(EnvironmentUtil.getString(AWS_REGION, DEFAULT_AWS_REGION)) : null;
+    }
+
+    public static Route53ResolverAsyncClient getAsyncClient(final String region) {
+        return ASYNC_CLIENTS.computeIfAbsent(region, ClientBuilder::buildAsyncClient);
+    }
+
+    //drops every cached client so the next call builds a fresh one, used after a snapshot restore where the pooled
+    //connections and whatever the default credential chain resolved at init belong to a container that no longer exists
+    public static void reset() {
+        for (String region : CLIENTS.keySet()) {
+            final AmazonRoute53Resolver client = CLIENTS.remove(region);
+            if (client != null) {
+                client.shutdown();
+            }
+        }
+        for (String region : ASYNC_CLIENTS.keySet()) {
+            final Route53ResolverAsyncClient client = ASYNC_CLIENTS.remove(region);
+            if (client != null) {
+                client.close();
+            }
+        }
+    }
+
+    public static ClientPoolStatistics getPoolStatistics() {
+        return POOL_STATISTICS;
+    }
+
+    //Lambda may freeze the container between polls, so idle connections are re-validated
+    //before reuse instead of failing the first request after a thaw. ResolverApiInvoker does all the retrying,
+    //against its retry budget and invocation deadline, so the SDK makes exactly one request per attempt
+    static ClientConfiguration clientConfiguration() {
+        return new ClientConfiguration()
+                .withMaxConnections(EnvironmentUtil.getInt(MAX_CONNECTIONS, DEFAULT_MAX_CONNECTIONS))
+                .withTcpKeepAlive(true)
+                .withConnectionMaxIdleMillis(EnvironmentUtil.getLong(CONNECTION_MAX_IDLE_MILLIS, DEFAULT_CONNECTION_MAX_IDLE_MILLIS))
+                .withValidateAfterInactivityMillis(EnvironmentUtil.getInt(VALIDATE_AFTER_INACTIVITY_MILLIS, DEFAULT_VALIDATE_AFTER_INACTIVITY_MILLIS))
+                .withRetryPolicy(PredefinedRetryPolicies.NO_RETRY_POLICY);
+    }
+
+    //no SDK retries on the async client either, for the same reason
+    static ClientOverrideConfiguration asyncOverrideConfiguration() {
+        return ClientOverrideConfiguration.builder()
+                .retryPolicy(RetryPolicy.none())
+                .build();
+    }
+
+    private static AmazonRoute53Resolver buildClient(final String region) {
+        final AmazonRoute53ResolverClientBuilder awsRoute53ResolverBuilder = AmazonRoute53ResolverClientBuilder.standard()
+                .withClientConfiguration(clientConfiguration())
+                .withMetricsCollector(POOL_STATISTICS);
+        awsRoute53ResolverBuilder.withRegion(region);
+        POOL_STATISTICS.clientBuilt();
         return awsRoute53ResolverBuilder.build();
     }
 
-    //Lambda will have an environment variable for AWS_REGION
-    //https://docs.aws.amazon.com/lambda/latest/dg/configuration-envvars.html
-    private static String getEnvironmentValue(final String environmentVariable, final String defaultValue) {
-        final String value = System.getenv(environmentVariable);
-        return StringUtils.isNullOrEmpty(value) ? defaultValue : value;
+    //same pool size and idle handling as the blocking client, credentials are still injected per request by the proxy
+    private static Route53ResolverAsyncClient buildAsyncClient(final String region) {
+        return Route53ResolverAsyncClient.builder()
+                .region(Region.of(region))
+                .overrideConfiguration(asyncOverrideConfiguration())
+                .httpClientBuilder(NettyNioAsyncHttpClient.builder()
+                        .maxConcurrency(EnvironmentUtil.getInt(MAX_CONNECTIONS, DEFAULT_MAX_CONNECTIONS))
+                        .tcpKeepAlive(true)
+                        .connectionMaxIdleTime(Duration.ofMillis(EnvironmentUtil.getLong(CONNECTION_MAX_IDLE_MILLIS, DEFAULT_CONNECTION_MAX_IDLE_MILLIS))))
+                .build();
     }
 }
@@ -0,0 +1,76 @@
+package software.amazon.route53resolver.outpostresolver;
+
+import com.amazonaws.Request;
+import com.amazonaws.Response;
+import com.amazonaws.metrics.RequestMetricCollector;
+import com.amazonaws.util.AWSRequestMetrics;
+import com.amazonaws.util.TimingInfo;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+//Collects the connection pool counters the SDK captures for every request made by the shared client,
+//so we can tell whether warm invocations are reusing connections or waiting on the pool.
+public class ClientPoolStatistics extends RequestMetricCollector {
+
+    private final AtomicLong clientsBuilt = new AtomicLong();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong available = new AtomicLong();
+    private final AtomicLong leased = new AtomicLong();
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong maxPending = new AtomicLong();
+
+    @Override
+    public void collectMetrics(final Request<?> request, final Response<?> response) {
+        requests.incrementAndGet();
+        final AWSRequestMetrics metrics = request.getAWSRequestMetrics();
+        if (metrics == null || metrics.getTimingInfo() == null) {
+            return;
+        }
+        final TimingInfo timingInfo = metrics.getTimingInfo();
+        available.set(counter(timingInfo, AWSRequestMetrics.Field.HttpClientPoolAvailableCount));
+        leased.set(counter(timingInfo, AWSRequestMetrics.Field.HttpClientPoolLeasedCount));
+        final long pendingCount = counter(timingInfo, AWSRequestMetrics.Field.HttpClientPoolPendingCount);
+        pending.set(pendingCount);
+        maxPending.accumulateAndGet(pendingCount, Math::max);
+    }
+
+    void clientBuilt() {
+        clientsBuilt.incrementAndGet();
+    }
+
+    public long getClientsBuilt() {
+        return clientsBuilt.get();
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    public long getAvailableConnections() {
+        return available.get();
+    }
+
+    public long getLeasedConnections() {
+        return leased.get();
+    }
+
+    public long getPendingConnections() {
+        return pending.get();
+    }
+
+    public long getMaxPendingConnections() {
+        return maxPending.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("clientsBuilt=%d requests=%d available=%d leased=%d pending=%d maxPending=%d",
+                getClientsBuilt(), getRequests(), getAvailableConnections(), getLeasedConnections(),
+                getPendingConnections(), getMaxPendingConnections());
+    }
+
+    private static long counter(final TimingInfo timingInfo, final AWSRequestMetrics.Field field) {
+        final Number value = timingInfo.getCounter(field.name());
+        return value == null ? 0L : value.longValue();
+    }
+}
@@ -0,0 +1,182 @@
+package software.amazon.route53resolver.outpostresolver;
+
+import com.amazonaws.services.route53resolver.AbstractAmazonRoute53Resolver;
+import com.amazonaws.services.route53resolver.model.AccessDeniedException;
+import com.amazonaws.services.route53resolver.model.ConflictException;
+import com.amazonaws.services.route53resolver.model.DeleteOutpostResolverRequest;
+import com.amazonaws.services.route53resolver.model.DeleteOutpostResolverResult;
+import com.amazonaws.services.route53resolver.model.GetOutpostResolverRequest;
+import com.amazonaws.services.route53resolver.model.GetOutpostResolverResult;
+import com.amazonaws.services.route53resolver.model.InternalServiceErrorException;
+import com.amazonaws.services.route53resolver.model.InvalidParameterException;
+import com.amazonaws.services.route53resolver.model.InvalidRequestException;
+import com.amazonaws.services.route53resolver.model.ListTagsForResourceRequest;
+import com.amazonaws.services.route53resolver.model.ListTagsForResourceResult;
+import com.amazonaws.services.route53resolver.model.OutpostResolver;
+import com.amazonaws.services.route53resolver.model.OutpostResolverStatus;
+import com.amazonaws.services.route53resolver.model.ResourceNotFoundException;
+import com.amazonaws.services.route53resolver.model.ServiceQuotaExceededException;
+import com.amazonaws.services.route53resolver.model.ThrottlingException;
+import com.amazonaws.services.route53resolver.model.ValidationException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.crac.Context;
+import org.crac.Core;
+import org.crac.Resource;
+import software.amazon.cloudformation.exceptions.CfnAccessDeniedException;
+import software.amazon.cloudformation.exceptions.CfnInvalidRequestException;
+import software.amazon.cloudformation.exceptions.CfnNotFoundException;
+import software.amazon.cloudformation.exceptions.CfnResourceConflictException;
+import software.amazon.cloudformation.exceptions.CfnServiceInternalErrorException;
+import software.amazon.cloudformation.exceptions.CfnServiceLimitExceededException;
+import software.amazon.cloudformation.exceptions.CfnThrottlingException;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.Credentials;
+import software.amazon.cloudformation.proxy.LoggerProxy;
+import software.amazon.cloudformation.proxy.OperationStatus;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+import software.amazon.cloudformation.resource.Serializer;
+import software.amazon.route53resolver.outpostresolver.util.EnvironmentUtil;
+import software.amazon.route53resolver.outpostresolver.util.OutpostResolverUtil;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+//Warms what every cold start otherwise pays for on the first poll: SDK client construction, Jackson binding for the
+//model and the callback context, the resolver mapping and the exception classes the handlers translate into.
+//On a CRaC JDK or with Lambda SnapStart this runs once before the snapshot is taken, and the clients built from the
+//init environment are dropped again after restore. Without a checkpoint the hooks are never called.
+public class ColdStartPriming implements Resource {
+
+    private static final String PRIMING_ENABLED = "PRIMING_ENABLED";
+    private static final String PRIMING_ID = "rslvr-op-0000000000000000";
+    private static final String PRIMING_ARN = "arn:aws:route53resolver:us-west-2:123456789012:outpost-resolver/" + PRIMING_ID;
+    private static final String PRIMING_OUTPOST_ARN = "arn:aws:outposts:us-west-2:123456789012:outpost/op-0000000000000000";
+
+    //org.crac only keeps weak references to registered resources
+    private static final ColdStartPriming INSTANCE = new ColdStartPriming();
+    private static final AtomicBoolean REGISTERED = new AtomicBoolean();
+
+    private ColdStartPriming() {
+    }
+
+    public static void register() {
+        if (EnvironmentUtil.getBoolean(PRIMING_ENABLED, true) && REGISTERED.compareAndSet(false, true)) {
+            Core.getGlobalContext().register(INSTANCE);
+        }
+    }
+
+    @Override
+    public void beforeCheckpoint(final Context<? extends Resource> context) throws Exception {
+        prime();
+    }
+
+    @Override
+    public void afterRestore(final Context<? extends Resource> context) {
+        //credentials are injected by the proxy on every request, the client itself only carries connections and
+        //whatever the default chain resolved at init, so a fresh client is all a restored container needs
+        ClientBuilder.reset();
+        ClientBuilder.getClient();
+    }
+
+    static void prime() throws IOException {
+        ClientBuilder.getClient();
+
+        //calls go through the real invoker and proxy but never leave the process, and use their own limiter and
+        //budget so the shared ones start the first real invocation untouched
+        final PrimingRoute53Resolver client = new PrimingRoute53Resolver();
+        final AmazonWebServicesClientProxy proxy = new AmazonWebServicesClientProxy(new LoggerProxy(),
+                new Credentials("priming", "priming", "priming"), () -> Long.MAX_VALUE);
+        final ApiMetrics metrics = new ApiMetrics("Priming", false, "Priming");
+        final ResolverApiInvoker invoker = new ResolverApiInvoker(proxy, message -> { }, InvocationTimer.start(),
+                new RetryTokenBucket(0), new AdaptiveConcurrencyLimiter(1, 1, 1), metrics, 1);
+
+        final ResourceModel model = ResourceModel.builder().id(PRIMING_ID).build();
+        final GetOutpostResolverResult getResult =
+                invoker.invoke(new GetOutpostResolverRequest().withId(PRIMING_ID), client::getOutpostResolver);
+        OutpostResolverUtil.outpostResolverToModelMapper(model, getResult.getOutpostResolver(), invoker, client);
+        final CallbackContext callbackContext = CallbackContext.builder().mutationStarted(true).build();
+        callbackContext.setOutpostResolverId(PRIMING_ID);
+        callbackContext.observe(getResult.getOutpostResolver());
+
+        //the wrapper deserializes both on every invocation and serializes the progress event on the way out
+        final Serializer serializer = new Serializer();
+        serializer.deserialize(serializer.serialize(model), new TypeReference<ResourceModel>() { });
+        serializer.deserialize(serializer.serialize(callbackContext), new TypeReference<CallbackContext>() { });
+        serializer.serialize(ProgressEvent.<ResourceModel, CallbackContext>builder()
+                .resourceModel(model)
+                .callbackContext(callbackContext)
+                .status(OperationStatus.IN_PROGRESS)
+                .callbackDelaySeconds(1)
+                .build());
+
+        try {
+            invoker.invoke(new DeleteOutpostResolverRequest().withId(PRIMING_ID), client::deleteOutpostResolver);
+        } catch (ResourceNotFoundException e) {
+            translate(e);
+        }
+        final List<RuntimeException> serviceExceptions = Arrays.asList(
+                new AccessDeniedException("priming"),
+                new ConflictException("priming"),
+                new InternalServiceErrorException("priming"),
+                new InvalidParameterException("priming"),
+                new InvalidRequestException("priming"),
+                new ServiceQuotaExceededException("priming"),
+                new ThrottlingException("priming"),
+                new ValidationException("priming"));
+        for (RuntimeException e : serviceExceptions) {
+            translate(e);
+        }
+        metrics.toEmfDocuments();
+    }
+
+    //mirrors the catch blocks of the handlers closely enough to load and link every class they translate into
+    private static RuntimeException translate(final RuntimeException e) {
+        ResolverApiInvoker.isRetryable(e);
+        if (e instanceof ResourceNotFoundException) {
+            return new CfnNotFoundException(ResourceModel.TYPE_NAME, PRIMING_ID);
+        } else if (e instanceof AccessDeniedException) {
+            return new CfnAccessDeniedException(ResourceModel.TYPE_NAME, e);
+        } else if (e instanceof ConflictException) {
+            return new CfnResourceConflictException(ResourceModel.TYPE_NAME, PRIMING_ID, e.getMessage(), e);
+        } else if (e instanceof InternalServiceErrorException) {
+            return new CfnServiceInternalErrorException(ResourceModel.TYPE_NAME, e);
+        } else if (e instanceof ServiceQuotaExceededException) {
+            return new CfnServiceLimitExceededException(ResourceModel.TYPE_NAME, e.getMessage(), e);
+        } else if (e instanceof ThrottlingException) {
+            return new CfnThrottlingException(ResourceModel.TYPE_NAME, e);
+        }
+        return new CfnInvalidRequestException(e.getMessage(), e);
+    }
+
+    //canned answers shaped like the real service, nothing here leaves the process
+    private static class PrimingRoute53Resolver extends AbstractAmazonRoute53Resolver {
+
+        @Override
+        public GetOutpostResolverResult getOutpostResolver(final GetOutpostResolverRequest request) {
+            return new GetOutpostResolverResult().withOutpostResolver(new OutpostResolver()
+                    .withId(PRIMING_ID)
+                    .withArn(PRIMING_ARN)
+                    .withOutpostArn(PRIMING_OUTPOST_ARN)
+                    .withName("priming")
+                    .withInstanceCount(4)
+                    .withPreferredInstanceType("m5.large")
+                    .withStatus(OutpostResolverStatus.OPERATIONAL.toString())
+                    .withCreatorRequestId("priming")
+                    .withCreationTime("2023-01-01T00:00:00.000Z")
+                    .withModificationTime("2023-01-01T00:00:00.000Z"));
+        }
+
+        @Override
+        public ListTagsForResourceResult listTagsForResource(final ListTagsForResourceRequest request) {
+            return new ListTagsForResourceResult().withTags(
+                    new com.amazonaws.services.route53resolver.model.Tag().withKey("priming").withValue("priming"));
+        }
+
+        @Override
+        public DeleteOutpostResolverResult deleteOutpostResolver(final DeleteOutpostResolverRequest request) {
+            throw new ResourceNotFoundException("priming");
+        }
+    }
+}
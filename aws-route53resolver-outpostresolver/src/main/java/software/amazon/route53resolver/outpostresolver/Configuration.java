@@ -2,6 +2,11 @@ package software.amazon.route53resolver.outpostresolver;
 
 class Configuration extends BaseConfiguration {
 
+    //the generated HandlerWrapper builds its Configuration during function init, before any snapshot is taken
+    static {
+        ColdStartPriming.register();
+    }
+
     public Configuration() {
         super("aws-route53resolver-outpostresolver.json");
     }
@@ -2,13 +2,36 @@ package software.amazon.route53resolver.outpostresolver;
 
 import com.amazonaws.services.route53resolver.AmazonRoute53Resolver;
 import com.amazonaws.services.route53resolver.model.*;
+import org.json.JSONObject;
 import software.amazon.cloudformation.exceptions.*;
 import software.amazon.cloudformation.exceptions.ResourceNotFoundException;
 import software.amazon.cloudformation.proxy.*;
 import software.amazon.route53resolver.outpostresolver.util.OutpostResolverUtil;
 
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 public class CreateHandler extends BaseHandler<CallbackContext> {
 
+    private final StabilizationPollingPolicy pollingPolicy;
+    private final InvocationPoller poller;
+    private final TagReconciler tagReconciler = new TagReconciler();
+
+    public CreateHandler() {
+        this(new ExponentialBackoffPollingPolicy());
+    }
+
+    public CreateHandler(final StabilizationPollingPolicy pollingPolicy) {
+        this(pollingPolicy, InvocationPoller.fromEnvironment());
+    }
+
+    public CreateHandler(final StabilizationPollingPolicy pollingPolicy, final InvocationPoller poller) {
+        this.pollingPolicy = pollingPolicy;
+        this.poller = poller;
+    }
+
     @Override
     public ProgressEvent<ResourceModel, CallbackContext> handleRequest(
             final AmazonWebServicesClientProxy proxy,
@@ -16,9 +39,8 @@ public class CreateHandler extends BaseHandler<CallbackContext> {
             final CallbackContext callbackContext,
             final Logger logger) {
 
-        ClientBuilder builder = new ClientBuilder();
         // This Lambda will continually be re-invoked with the current state of the stack, finally finishes when state stabilizes.
-        return doHandleRequest(proxy, request, callbackContext, logger, builder.getClient());
+        return doHandleRequest(proxy, request, callbackContext, logger, ClientBuilder.getClient());
     }
 
     public ProgressEvent<ResourceModel, CallbackContext> doHandleRequest(
@@ -28,34 +50,56 @@ public class CreateHandler extends BaseHandler<CallbackContext> {
             final Logger logger,
             final AmazonRoute53Resolver client){
 
+        final InvocationTimer timer = InvocationTimer.start();
+        final ApiMetrics metrics = new ApiMetrics("Create");
+        final ResolverApiInvoker invoker = new ResolverApiInvoker(proxy, logger, timer, metrics).forCaller(request);
+        try {
+            return handle(timer, invoker, request, callbackContext, new HandlerLogger(logger, "Create"), client);
+        } finally {
+            //a Read snapshot taken before or during this invocation may no longer match the resolver
+            ResolverSnapshotCache.shared().invalidate(request, request.getDesiredResourceState().getId());
+            //one set of EMF lines per invocation, including the ones that end in an exception
+            metrics.flush(logger);
+        }
+    }
+
+    private ProgressEvent<ResourceModel, CallbackContext> handle(
+            final InvocationTimer timer,
+            final ResolverApiInvoker invoker,
+            final ResourceHandlerRequest<ResourceModel> request,
+            final CallbackContext callbackContext,
+            final HandlerLogger log,
+            final AmazonRoute53Resolver client) {
+
         final ResourceModel model = request.getDesiredResourceState();
         final CallbackContext context = callbackContext == null ? CallbackContext.builder().build() : callbackContext;
 
         if (!context.isMutationStarted()) {
+            final TagSet createTags = TagSet.resourceTags(model, request.getDesiredResourceTags());
+            //system tags plus stack tags can exceed what a single call accepts, the overflow is tagged once the resolver exists
+            final List<TagSet> createTagChunks = tagReconciler.chunk(createTags);
             final CreateOutpostResolverRequest createRequest = new CreateOutpostResolverRequest()
                     .withCreatorRequestId(request.getClientRequestToken())
                     .withName(model.getName())
                     .withInstanceCount(model.getInstanceCount())
                     .withOutpostArn(model.getOutpostArn())
                     .withPreferredInstanceType(model.getPreferredInstanceType())
-                    .withTags(TagHelper.translateTags(TagHelper.getAllResourceTags(model, request.getDesiredResourceTags())));
+                    .withTags(createTagChunks.isEmpty() ? Collections.emptyList() : createTagChunks.get(0).toSdkTags());
             context.setMutationStarted(true);
             context.setMutationStabilized(false);
             try {
                 final CreateOutpostResolverResult createResult =
-                        proxy.injectCredentialsAndInvoke(createRequest, client::createOutpostResolver);
+                        invoker.invoke(createRequest, client::createOutpostResolver);
                 if (createResult != null) {
                     context.setOutpostResolverId(createResult.getOutpostResolver().getId());
-                    OutpostResolverUtil.outpostResolverToModelMapper(model, createResult.getOutpostResolver(), proxy, client);
+                    context.observe(createResult.getOutpostResolver());
+                    OutpostResolverUtil.outpostResolverToModelMapper(model, createResult.getOutpostResolver(), new HashSet<>(createTags.toModelTags()));
+                    for (int i = 1; i < createTagChunks.size(); i++) {
+                        tagReconciler.tagResource(invoker, client, model.getArn(), createTagChunks.get(i));
+                    }
                 }
 
-                logger.log("...........................................");
-                logger.log("the OutpostResolver resource is being created...");
-                logger.log("the OutpostResolver Name is " + model.getName());
-                logger.log("the OutpostResolver Id is " + model.getId());
-                logger.log("current status is " + model.getStatus());
-                logger.log("pending stabilization...");
-                logger.log("...........................................");
+                log.info("MutationStarted", () -> HandlerLogger.describe(model));
 
             } catch (InvalidRequestException | InvalidParameterException | ValidationException e) {
                 throw new CfnInvalidRequestException(createRequest.toString(), e);
@@ -71,35 +115,67 @@ public class CreateHandler extends BaseHandler<CallbackContext> {
                 throw new  CfnThrottlingException(ResourceModel.TYPE_NAME, e);
             }
 
-            return ProgressEvent.<ResourceModel, CallbackContext>builder()
+            return poller.pollWhileTimeRemains(timer, ProgressEvent.<ResourceModel, CallbackContext>builder()
                     .callbackContext(context)
                     .resourceModel(model)
                     .status(OperationStatus.IN_PROGRESS)
-                    .build();
+                    .callbackDelaySeconds(pollingPolicy.nextDelaySeconds(model.getStatus(), model.getInstanceCount(), context))
+                    .build(), () -> stabilize(invoker, request, context, log, client, model));
         }
 
-        if (!context.isMutationStabilized()) {
+        return poller.pollWhileTimeRemains(timer, stabilize(invoker, request, context, log, client, model),
+                () -> stabilize(invoker, request, context, log, client, model));
+    }
+
+    private ProgressEvent<ResourceModel, CallbackContext> stabilize(
+            final ResolverApiInvoker invoker,
+            final ResourceHandlerRequest<ResourceModel> request,
+            final CallbackContext context,
+            final HandlerLogger log,
+            final AmazonRoute53Resolver client,
+            final ResourceModel model) {
+
+        //a tag read that did not finish last time is picked up again together with a fresh look at the resolver
+        if (!context.isMutationStabilized() || context.getTagsNextToken() != null) {
             final GetOutpostResolverRequest getRequest = new GetOutpostResolverRequest()
                     .withId(context.getOutpostResolverId());
 
             final GetOutpostResolverResult getResult =
-                    proxy.injectCredentialsAndInvoke(getRequest, client::getOutpostResolver);
+                    invoker.invoke(getRequest, client::getOutpostResolver);
 
             if (getResult != null && getResult.getOutpostResolver() != null) {
-
-                OutpostResolverUtil.outpostResolverToModelMapper(model, getResult.getOutpostResolver(), proxy, client);
+                final OutpostResolver resolver = getResult.getOutpostResolver();
+                //most polls see the resolver exactly as the previous one did and have nothing to map
+                final boolean changed = ResolverModelMapper.refresh(model, resolver, context);
 
                 //Possible end state of OutpostResolver include OPERATIONAL, ACTION_NEEDED, and FAILED_CREATION
-                context.setMutationStabilized(model.getStatus().equals(OutpostResolverStatus.OPERATIONAL.toString())
-                        || model.getStatus().equals(OutpostResolverStatus.ACTION_NEEDED.toString())
-                        || model.getStatus().equals(OutpostResolverStatus.FAILED_CREATION.toString()));
+                context.setMutationStabilized(OutpostResolverStatus.OPERATIONAL.toString().equals(resolver.getStatus())
+                        || OutpostResolverStatus.ACTION_NEEDED.toString().equals(resolver.getStatus())
+                        || OutpostResolverStatus.FAILED_CREATION.toString().equals(resolver.getStatus()));
+
+                if (context.isMutationStabilized()) {
+                    //one authoritative tag read once the resolver settles, it may take more than one invocation
+                    final Set<Tag> tags = TagHelper.listAndTranslateTags(client, invoker, model, context);
+                    if (tags == null) {
+                        return ProgressEvent.<ResourceModel, CallbackContext>builder()
+                                .callbackContext(context)
+                                .status(OperationStatus.IN_PROGRESS)
+                                .callbackDelaySeconds(ResolverApiInvoker.throttleBackoffSeconds(context.getThrottledCheckpoints()))
+                                .resourceModel(model)
+                                .build();
+                    }
+                    model.setTags(tags);
+                } else if (changed) {
+                    //while CREATING the tags can only be the ones we sent with the create request. The model gets its
+                    //own copy, the view of a TagSet is read-only
+                    model.setTags(new HashSet<>(TagSet.resourceTags(model, request.getDesiredResourceTags()).toModelTags()));
+                }
                 context.setOutpostResolverId(model.getId());
 
             }
 
             if(context.isMutationStabilized()) {
-                logger.log(String.format("%s [%s] is stablized with status %s",
-                        ResourceModel.TYPE_NAME, model.getId(), model.getStatus()));
+                log.info("Stabilized", () -> new JSONObject().put("id", model.getId()).put("status", model.getStatus()));
 
                 return ProgressEvent.<ResourceModel, CallbackContext>builder()
                         .callbackContext(context)
@@ -112,6 +188,7 @@ public class CreateHandler extends BaseHandler<CallbackContext> {
         return ProgressEvent.<ResourceModel, CallbackContext>builder()
                 .callbackContext(context)
                 .status(OperationStatus.IN_PROGRESS)
+                .callbackDelaySeconds(pollingPolicy.nextDelaySeconds(model.getStatus(), model.getInstanceCount(), context))
                 .resourceModel(model)
                 .build();
     }
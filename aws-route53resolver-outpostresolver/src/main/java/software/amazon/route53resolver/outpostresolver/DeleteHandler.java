@@ -2,16 +2,55 @@ package software.amazon.route53resolver.outpostresolver;
 
 import com.amazonaws.services.route53resolver.AmazonRoute53Resolver;
 import com.amazonaws.services.route53resolver.model.*;
+import org.json.JSONObject;
 import software.amazon.cloudformation.exceptions.CfnInvalidRequestException;
 import software.amazon.cloudformation.exceptions.CfnNotFoundException;
 import software.amazon.cloudformation.exceptions.CfnServiceInternalErrorException;
 import software.amazon.cloudformation.exceptions.CfnThrottlingException;
 import software.amazon.cloudformation.proxy.*;
+import software.amazon.route53resolver.outpostresolver.util.EnvironmentUtil;
 import software.amazon.route53resolver.outpostresolver.util.OutpostResolverUtil;
 
+import java.util.ArrayList;
+import java.util.List;
 
 public class DeleteHandler extends BaseHandler<CallbackContext> {
 
+    //Resolver endpoints on an outpost keep its outpost resolver from being deleted, and a delete blocked by them only
+    //shows up as FAILED_DELETION after minutes of polling. Looking for them before DeleteOutpostResolver fails the
+    //request right away and names them. On unless DELETE_DEPENDENCY_CHECK_ENABLED is set to false.
+    private static final String DELETE_DEPENDENCY_CHECK_ENABLED = "DELETE_DEPENDENCY_CHECK_ENABLED";
+    //ListResolverEndpoints accepts at most 100 results per page
+    private static final int ENDPOINT_PAGE_SIZE = 100;
+    //time kept back for the delete call, with less than this left the scan carries on in the next invocation
+    private static final String ENDPOINT_SCAN_RESERVE_MILLIS = "ENDPOINT_SCAN_RESERVE_MILLIS";
+    private static final long DEFAULT_ENDPOINT_SCAN_RESERVE_MILLIS = 10_000L;
+    private static final long SCAN_RESERVE_MILLIS = EnvironmentUtil.getLong(ENDPOINT_SCAN_RESERVE_MILLIS, DEFAULT_ENDPOINT_SCAN_RESERVE_MILLIS);
+    //how many endpoint ids the failure message names
+    private static final int NAMED_ENDPOINTS = 10;
+
+    private final StabilizationPollingPolicy pollingPolicy;
+    private final InvocationPoller poller;
+    private final boolean dependencyCheckEnabled;
+
+    public DeleteHandler() {
+        this(new ExponentialBackoffPollingPolicy());
+    }
+
+    public DeleteHandler(final StabilizationPollingPolicy pollingPolicy) {
+        this(pollingPolicy, InvocationPoller.fromEnvironment());
+    }
+
+    public DeleteHandler(final StabilizationPollingPolicy pollingPolicy, final InvocationPoller poller) {
+        this(pollingPolicy, poller, EnvironmentUtil.getBoolean(DELETE_DEPENDENCY_CHECK_ENABLED, true));
+    }
+
+    public DeleteHandler(final StabilizationPollingPolicy pollingPolicy, final InvocationPoller poller, final boolean dependencyCheckEnabled) {
+        this.pollingPolicy = pollingPolicy;
+        this.poller = poller;
+        this.dependencyCheckEnabled = dependencyCheckEnabled;
+    }
+
     @Override
     public ProgressEvent<ResourceModel, CallbackContext> handleRequest(
             final AmazonWebServicesClientProxy proxy,
@@ -19,9 +58,8 @@ public class DeleteHandler extends BaseHandler<CallbackContext> {
             final CallbackContext callbackContext,
             final Logger logger) {
 
-        ClientBuilder builder = new ClientBuilder();
         // This Lambda will continually be re-invoked with the current state of the stack, finally succeeding when state stabilizes.
-        return doHandleRequest(proxy, request, callbackContext, logger, builder.getClient());
+        return doHandleRequest(proxy, request, callbackContext, logger, ClientBuilder.getClient());
     }
 
     public ProgressEvent<ResourceModel, CallbackContext> doHandleRequest(
@@ -31,18 +69,65 @@ public class DeleteHandler extends BaseHandler<CallbackContext> {
             final Logger logger,
             final AmazonRoute53Resolver client) {
 
+        final InvocationTimer timer = InvocationTimer.start();
+        final ApiMetrics metrics = new ApiMetrics("Delete");
+        final ResolverApiInvoker invoker = new ResolverApiInvoker(proxy, logger, timer, metrics).forCaller(request);
+        try {
+            return handle(timer, invoker, request, callbackContext, new HandlerLogger(logger, "Delete"), client);
+        } finally {
+            //a Read snapshot taken before or during this invocation may no longer match the resolver
+            ResolverSnapshotCache.shared().invalidate(request, request.getDesiredResourceState().getId());
+            //one set of EMF lines per invocation, including the ones that end in an exception
+            metrics.flush(logger);
+        }
+    }
+
+    private ProgressEvent<ResourceModel, CallbackContext> handle(
+            final InvocationTimer timer,
+            final ResolverApiInvoker invoker,
+            final ResourceHandlerRequest<ResourceModel> request,
+            final CallbackContext callbackContext,
+            final HandlerLogger log,
+            final AmazonRoute53Resolver client) {
+
         final ResourceModel model = request.getDesiredResourceState();
-        logger.log("DeleteHandler request: " + request);
         final CallbackContext context = callbackContext == null ? CallbackContext.builder().build() : callbackContext;
+        log.request(request, context.isMutationStarted());
 
         if (!context.isMutationStarted()) {
+            //the scan's outcome stays in the context, so a re-invoked request neither pages again nor loses its place.
+            //A scan stopped by throttling waits before it carries on, one stopped by the clock does not
+            if (dependencyCheckEnabled && model.getOutpostArn() != null && !context.isEndpointScanComplete()
+                    && !scanDependentEndpoints(invoker, client, model.getOutpostArn(), context, log)) {
+                return ProgressEvent.<ResourceModel, CallbackContext>builder()
+                        .callbackContext(context)
+                        .resourceModel(model)
+                        .status(OperationStatus.IN_PROGRESS)
+                        .callbackDelaySeconds(ResolverApiInvoker.throttleBackoffSeconds(context.getThrottledCheckpoints()))
+                        .build();
+            }
+            final List<String> dependents = context.getDependentEndpointIds();
+            if (dependents != null && !dependents.isEmpty()) {
+                log.info("DeleteBlocked", () -> new JSONObject()
+                        .put("id", model.getId())
+                        .put("outpostArn", model.getOutpostArn())
+                        .put("endpointCount", dependents.size()));
+                return ProgressEvent.<ResourceModel, CallbackContext>builder()
+                        .callbackContext(context)
+                        .resourceModel(model)
+                        .status(OperationStatus.FAILED)
+                        .errorCode(HandlerErrorCode.ResourceConflict)
+                        .message(blockedMessage(model, dependents))
+                        .build();
+            }
+
             final DeleteOutpostResolverRequest deleteRequest = new DeleteOutpostResolverRequest()
                     .withId(model.getId());
             context.setMutationStarted(true);
             context.setMutationStabilized(false);
             try {
                 final DeleteOutpostResolverResult deleteResult =
-                        proxy.injectCredentialsAndInvoke(deleteRequest, client::deleteOutpostResolver);
+                        invoker.invoke(deleteRequest, client::deleteOutpostResolver);
                 if(deleteResult == null || deleteResult.getOutpostResolver() == null) {
                     context.setMutationStabilized(true);
                     return ProgressEvent.<ResourceModel, CallbackContext>builder()
@@ -52,16 +137,11 @@ public class DeleteHandler extends BaseHandler<CallbackContext> {
                             .build();
                 } else {
                     context.setOutpostResolverId(deleteResult.getOutpostResolver().getId());
+                    context.observe(deleteResult.getOutpostResolver());
                     OutpostResolverUtil.outpostResolverToModelMapper(model, deleteResult.getOutpostResolver(), null, null);
                 }
 
-                logger.log("...........................................");
-                logger.log("the OutpostResolver is being deleted...");
-                logger.log("the OutpostResolver name is " + model.getName());
-                logger.log("the OutpostResolver Id is " + model.getId());
-                logger.log("current status is " + model.getStatus());
-                logger.log("pending stabilization...");
-                logger.log("...........................................");
+                log.info("MutationStarted", () -> HandlerLogger.describe(model));
 
             } catch (final ResourceNotFoundException e) {
                 throw new CfnNotFoundException(ResourceModel.TYPE_NAME, model.getPrimaryIdentifier().toString());
@@ -73,24 +153,40 @@ public class DeleteHandler extends BaseHandler<CallbackContext> {
                 throw new CfnThrottlingException(ResourceModel.TYPE_NAME, e);
             }
 
-            return ProgressEvent.<ResourceModel, CallbackContext>builder()
+            return poller.pollWhileTimeRemains(timer, ProgressEvent.<ResourceModel, CallbackContext>builder()
                     .callbackContext(context)
                     .resourceModel(model)
                     .status(OperationStatus.IN_PROGRESS)
-                    .build();
+                    .callbackDelaySeconds(pollingPolicy.nextDelaySeconds(model.getStatus(), model.getInstanceCount(), context))
+                    .build(), () -> stabilize(invoker, context, log, client, model));
         }
 
+        return poller.pollWhileTimeRemains(timer, stabilize(invoker, context, log, client, model),
+                () -> stabilize(invoker, context, log, client, model));
+    }
+
+    private ProgressEvent<ResourceModel, CallbackContext> stabilize(
+            final ResolverApiInvoker invoker,
+            final CallbackContext context,
+            final HandlerLogger log,
+            final AmazonRoute53Resolver client,
+            final ResourceModel model) {
+
         if (!context.isMutationStabilized()) {
             final GetOutpostResolverRequest getRequest = new GetOutpostResolverRequest()
                     .withId(context.getOutpostResolverId());
 
-            GetOutpostResolverResult getResult =
-                    proxy.injectCredentialsAndInvoke(getRequest, client::getOutpostResolver);
+            GetOutpostResolverResult getResult;
+            try {
+                getResult = invoker.invoke(getRequest, client::getOutpostResolver);
+            } catch (ResourceNotFoundException e) {
+                //the service reports a finished delete as not found
+                getResult = null;
+            }
 
             //Outpost resolver deleted will not return anything
             if (getResult == null || getResult.getOutpostResolver() == null) {
-                logger.log(String.format("%s [%s] deleted successfully",
-                        ResourceModel.TYPE_NAME, model.getId()));
+                log.info("Deleted", () -> new JSONObject().put("id", model.getId()));
                 context.setMutationStabilized(true);
                 return ProgressEvent.<ResourceModel, CallbackContext>builder()
                         .status(OperationStatus.SUCCESS)
@@ -98,7 +194,7 @@ public class DeleteHandler extends BaseHandler<CallbackContext> {
             }
 
             context.setOutpostResolverId(getResult.getOutpostResolver().getId());
-            OutpostResolverUtil.outpostResolverToModelMapper(model, getResult.getOutpostResolver(), null, null);
+            ResolverModelMapper.refresh(model, getResult.getOutpostResolver(), context);
             if (getResult.getOutpostResolver().getStatus().equals(OutpostResolverStatus.FAILED_DELETION.toString())) {
                 context.setMutationStabilized(true);
                 return ProgressEvent.<ResourceModel, CallbackContext>builder()
@@ -112,7 +208,87 @@ public class DeleteHandler extends BaseHandler<CallbackContext> {
         return ProgressEvent.<ResourceModel, CallbackContext>builder()
                 .callbackContext(context)
                 .status(OperationStatus.IN_PROGRESS)
+                .callbackDelaySeconds(pollingPolicy.nextDelaySeconds(model.getStatus(), model.getInstanceCount(), context))
                 .resourceModel(model)
                 .build();
     }
+
+    //Pages through the resolver endpoints of the account and region and keeps the ids of those on outpostArn. Returns
+    //false when it stopped between pages, because time ran short or a later page was throttled, with the token of the
+    //next page and the ids found so far in the context. Every call reads at least one page. Without permission to
+    //list endpoints nothing is found and DeleteOutpostResolver has the final word, as it did before the scan.
+    private static boolean scanDependentEndpoints(
+            final ResolverApiInvoker invoker,
+            final AmazonRoute53Resolver client,
+            final String outpostArn,
+            final CallbackContext context,
+            final HandlerLogger log) {
+
+        final List<String> found = context.getDependentEndpointIds() == null
+                ? new ArrayList<>() : new ArrayList<>(context.getDependentEndpointIds());
+        String nextToken = context.getEndpointScanNextToken();
+        int pages = 0;
+        do {
+            if (pages > 0 && !invoker.getTimer().hasTimeFor(SCAN_RESERVE_MILLIS)) {
+                return checkpoint(context, found, nextToken, false);
+            }
+            final ListResolverEndpointsRequest listRequest = new ListResolverEndpointsRequest()
+                    .withMaxResults(ENDPOINT_PAGE_SIZE)
+                    .withNextToken(nextToken);
+            try {
+                final ListResolverEndpointsResult listResult = invoker.invoke(listRequest, client::listResolverEndpoints);
+                pages++;
+                nextToken = null;
+                if (listResult != null && listResult.getResolverEndpoints() != null) {
+                    for (ResolverEndpoint endpoint : listResult.getResolverEndpoints()) {
+                        //an endpoint already being deleted is on its way out, failing on it would only make the caller
+                        //retry a delete that the service accepts once the endpoint is gone
+                        if (outpostArn.equals(endpoint.getOutpostArn())
+                                && !ResolverEndpointStatus.DELETING.toString().equals(endpoint.getStatus())) {
+                            found.add(endpoint.getId());
+                        }
+                    }
+                    nextToken = listResult.getNextToken();
+                }
+            } catch (AccessDeniedException e) {
+                log.warn("EndpointScanSkipped", () -> new JSONObject().put("reason", e.getErrorCode()));
+                found.clear();
+                nextToken = null;
+            } catch (InternalServiceErrorException e) {
+                throw new CfnServiceInternalErrorException(ResourceModel.TYPE_NAME, e);
+            } catch (InvalidRequestException | InvalidParameterException | InvalidNextTokenException | ValidationException e) {
+                throw new CfnInvalidRequestException(listRequest.toString(), e);
+            } catch (ThrottlingException e) {
+                if (pages > 0) {
+                    return checkpoint(context, found, nextToken, true);
+                }
+                throw new CfnThrottlingException(ResourceModel.TYPE_NAME, e);
+            }
+        } while (nextToken != null);
+
+        context.setEndpointScanNextToken(null);
+        context.setDependentEndpointIds(found);
+        context.setEndpointScanComplete(true);
+        context.setThrottledCheckpoints(0);
+        return true;
+    }
+
+    private static boolean checkpoint(final CallbackContext context, final List<String> found, final String nextToken,
+                                      final boolean throttled) {
+        context.setEndpointScanNextToken(nextToken);
+        context.setDependentEndpointIds(found);
+        context.setThrottledCheckpoints(throttled ? context.getThrottledCheckpoints() + 1 : 0);
+        return false;
+    }
+
+    private static String blockedMessage(final ResourceModel model, final List<String> dependents) {
+        final StringBuilder message = new StringBuilder("OutpostResolver ").append(model.getId())
+                .append(" is still used by ").append(dependents.size()).append(" resolver endpoint(s) on ")
+                .append(model.getOutpostArn()).append(": ")
+                .append(String.join(", ", dependents.subList(0, Math.min(NAMED_ENDPOINTS, dependents.size()))));
+        if (dependents.size() > NAMED_ENDPOINTS) {
+            message.append(" and ").append(dependents.size() - NAMED_ENDPOINTS).append(" more");
+        }
+        return message.append(". Delete them before deleting the outpost resolver.").toString();
+    }
 }
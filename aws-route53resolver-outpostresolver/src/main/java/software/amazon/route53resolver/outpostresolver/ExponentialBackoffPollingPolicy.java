@@ -0,0 +1,70 @@
+package software.amazon.route53resolver.outpostresolver;
+
+import com.amazonaws.services.route53resolver.model.OutpostResolverStatus;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+//Polls quickly right after the mutation and backs off exponentially (with jitter) while the resolver
+//is still transitioning. Creates take longer than updates and deletes, and larger instance counts take
+//longer still, so both stretch the ceiling to avoid polls that cannot succeed yet.
+public class ExponentialBackoffPollingPolicy implements StabilizationPollingPolicy {
+
+    private static final int CREATING_FIRST_DELAY_SECONDS = 10;
+    private static final int TRANSITION_FIRST_DELAY_SECONDS = 5;
+    private static final int CREATING_MAX_DELAY_SECONDS = 60;
+    private static final int TRANSITION_MAX_DELAY_SECONDS = 30;
+    private static final int SECONDS_PER_INSTANCE = 2;
+    private static final int ABSOLUTE_MAX_DELAY_SECONDS = 120;
+    //once stabilization has been running this long we stop growing and just poll at the ceiling
+    private static final long LONG_RUNNING_MILLIS = 10 * 60 * 1000L;
+
+    private final Random random;
+    private final LongSupplier clock;
+
+    public ExponentialBackoffPollingPolicy() {
+        this(null, System::currentTimeMillis);
+    }
+
+    ExponentialBackoffPollingPolicy(final Random random, final LongSupplier clock) {
+        this.random = random;
+        this.clock = clock;
+    }
+
+    @Override
+    public int nextDelaySeconds(final String status, final Integer instanceCount, final CallbackContext context) {
+        final long now = clock.getAsLong();
+        if (context.getStabilizationStartTime() == null) {
+            context.setStabilizationStartTime(now);
+        }
+        final int attempt = context.getStabilizationAttempts();
+        context.setStabilizationAttempts(attempt + 1);
+
+        final boolean creating = OutpostResolverStatus.CREATING.toString().equals(status);
+        final int firstDelay = creating ? CREATING_FIRST_DELAY_SECONDS : TRANSITION_FIRST_DELAY_SECONDS;
+        final int maxDelay = Math.min(ABSOLUTE_MAX_DELAY_SECONDS,
+                (creating ? CREATING_MAX_DELAY_SECONDS : TRANSITION_MAX_DELAY_SECONDS)
+                        + (instanceCount == null ? 0 : instanceCount * SECONDS_PER_INSTANCE));
+
+        final long delay;
+        if (now - context.getStabilizationStartTime() >= LONG_RUNNING_MILLIS) {
+            delay = maxDelay;
+        } else {
+            //shift is capped so the exponent cannot overflow on very long stabilizations
+            delay = Math.min(maxDelay, (long) firstDelay << Math.min(attempt, 16));
+        }
+
+        //the first poll is not jittered so short operations are picked up as soon as possible
+        if (attempt == 0) {
+            return (int) delay;
+        }
+        //jitter within [delay/2, delay] so stacks rolled out together spread their polls apart
+        final int half = (int) (delay / 2);
+        return half + nextInt(half + 1);
+    }
+
+    private int nextInt(final int bound) {
+        return random == null ? ThreadLocalRandom.current().nextInt(bound) : random.nextInt(bound);
+    }
+}
@@ -0,0 +1,133 @@
+package software.amazon.route53resolver.outpostresolver;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.route53resolver.outpostresolver.util.EnvironmentUtil;
+
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+//Writes one compact JSON line per event through the rpdk Logger. Fields are built by a supplier that only runs when
+//the level is enabled, so suppressed events cost nothing beyond the check. Models are described by their identifiers
+//and tag keys, tag values never reach the log. Events that repeat on every stabilization poll can be sampled.
+public class HandlerLogger {
+
+    public enum Level { DEBUG, INFO, WARN, ERROR }
+
+    private static final String LOG_LEVEL = "LOG_LEVEL";
+    //a sampled event is written the first time and then once every this many occurrences in the container
+    private static final String LOG_POLL_SAMPLE_EVERY = "LOG_POLL_SAMPLE_EVERY";
+    private static final int DEFAULT_POLL_SAMPLE_EVERY = 10;
+    private static final ConcurrentMap<String, AtomicLong> SAMPLE_COUNTERS = new ConcurrentHashMap<>();
+
+    private final Logger delegate;
+    private final String action;
+    private final Level threshold;
+    private final int sampleEvery;
+
+    public HandlerLogger(final Logger delegate, final String action) {
+        this(delegate, action, level(EnvironmentUtil.getString(LOG_LEVEL, Level.INFO.name())),
+                EnvironmentUtil.getInt(LOG_POLL_SAMPLE_EVERY, DEFAULT_POLL_SAMPLE_EVERY));
+    }
+
+    public HandlerLogger(final Logger delegate, final String action, final Level threshold, final int sampleEvery) {
+        this.delegate = delegate;
+        this.action = action;
+        this.threshold = threshold;
+        this.sampleEvery = Math.max(1, sampleEvery);
+    }
+
+    public boolean isEnabled(final Level level) {
+        return level.compareTo(threshold) >= 0;
+    }
+
+    public void debug(final String event, final Supplier<JSONObject> fields) {
+        log(Level.DEBUG, event, fields);
+    }
+
+    public void info(final String event, final Supplier<JSONObject> fields) {
+        log(Level.INFO, event, fields);
+    }
+
+    public void warn(final String event, final Supplier<JSONObject> fields) {
+        log(Level.WARN, event, fields);
+    }
+
+    public void log(final Level level, final String event, final Supplier<JSONObject> fields) {
+        if (isEnabled(level)) {
+            write(level, event, fields.get());
+        }
+    }
+
+    //for events every poll repeats, the line carries how many occurrences it stands for
+    public void sampled(final Level level, final String event, final Supplier<JSONObject> fields) {
+        if (!isEnabled(level)) {
+            return;
+        }
+        final long occurrence = SAMPLE_COUNTERS.computeIfAbsent(action + "/" + event, key -> new AtomicLong()).getAndIncrement();
+        if (occurrence % sampleEvery == 0) {
+            write(level, event, fields.get().put("sampleEvery", sampleEvery));
+        }
+    }
+
+    //the request comes back with every stabilization poll, those repeats are sampled
+    public void request(final ResourceHandlerRequest<ResourceModel> request, final boolean poll) {
+        if (poll) {
+            sampled(Level.INFO, "Request", () -> describe(request));
+        } else {
+            info("Request", () -> describe(request));
+        }
+    }
+
+    private void write(final Level level, final String event, final JSONObject fields) {
+        delegate.log(fields.put("level", level.name()).put("action", action).put("event", event).toString());
+    }
+
+    public static JSONObject describe(final ResourceHandlerRequest<ResourceModel> request) {
+        return new JSONObject()
+                .put("clientRequestToken", request.getClientRequestToken())
+                .put("stackId", request.getStackId())
+                .put("logicalResourceId", request.getLogicalResourceIdentifier())
+                .put("desired", describe(request.getDesiredResourceState()))
+                .put("previous", describe(request.getPreviousResourceState()))
+                .put("desiredResourceTagKeys", request.getDesiredResourceTags() == null ? null
+                        : keys(request.getDesiredResourceTags().keySet()))
+                .put("nextToken", request.getNextToken() == null ? null : "present");
+    }
+
+    public static JSONObject describe(final ResourceModel model) {
+        if (model == null) {
+            return null;
+        }
+        return new JSONObject()
+                .put("id", model.getId())
+                .put("name", model.getName())
+                .put("status", model.getStatus())
+                .put("instanceCount", model.getInstanceCount())
+                .put("preferredInstanceType", model.getPreferredInstanceType())
+                .put("outpostArn", model.getOutpostArn())
+                .put("tagKeys", model.getTags() == null ? null
+                        : keys(model.getTags().stream().map(Tag::getKey).collect(Collectors.toList())));
+    }
+
+    //sorted so the same tags always produce the same line
+    private static JSONArray keys(final Collection<String> keys) {
+        return new JSONArray(new TreeSet<>(keys));
+    }
+
+    private static Level level(final String name) {
+        try {
+            return Level.valueOf(name.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            //a malformed tuning value should never fail the handler, fall back to the default
+            return Level.INFO;
+        }
+    }
+}
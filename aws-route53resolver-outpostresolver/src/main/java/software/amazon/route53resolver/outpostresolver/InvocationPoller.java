@@ -0,0 +1,52 @@
+package software.amazon.route53resolver.outpostresolver;
+
+import software.amazon.cloudformation.proxy.ProgressEvent;
+import software.amazon.route53resolver.outpostresolver.util.EnvironmentUtil;
+
+import java.util.function.Supplier;
+
+//Optionally keeps polling inside the current invocation instead of handing every IN_PROGRESS back to CloudFormation.
+//The progress event (and the CallbackContext it carries) is the checkpoint, so when the time budget runs out
+//the last event is returned unchanged and the next invocation resumes from it.
+public class InvocationPoller {
+
+    private static final String IN_INVOCATION_POLLING_ENABLED = "IN_INVOCATION_POLLING_ENABLED";
+    //time kept in reserve for the poll itself and for serializing the response
+    private static final String POLL_RESERVE_MILLIS = "IN_INVOCATION_POLL_RESERVE_MILLIS";
+    private static final long DEFAULT_POLL_RESERVE_MILLIS = 10_000L;
+
+    private final boolean enabled;
+    private final long pollReserveMillis;
+
+    public InvocationPoller(final boolean enabled, final long pollReserveMillis) {
+        this.enabled = enabled;
+        this.pollReserveMillis = pollReserveMillis;
+    }
+
+    public static InvocationPoller fromEnvironment() {
+        return new InvocationPoller(EnvironmentUtil.getBoolean(IN_INVOCATION_POLLING_ENABLED, false),
+                EnvironmentUtil.getLong(POLL_RESERVE_MILLIS, DEFAULT_POLL_RESERVE_MILLIS));
+    }
+
+    public ProgressEvent<ResourceModel, CallbackContext> pollWhileTimeRemains(
+            final InvocationTimer timer,
+            final ProgressEvent<ResourceModel, CallbackContext> progress,
+            final Supplier<ProgressEvent<ResourceModel, CallbackContext>> poll) {
+
+        ProgressEvent<ResourceModel, CallbackContext> current = progress;
+        while (enabled && current.isInProgress()) {
+            final long delayMillis = current.getCallbackDelaySeconds() * 1000L;
+            if (!timer.hasTimeFor(delayMillis + pollReserveMillis)) {
+                break;
+            }
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            current = poll.get();
+        }
+        return current;
+    }
+}
@@ -0,0 +1,37 @@
+package software.amazon.route53resolver.outpostresolver;
+
+import software.amazon.route53resolver.outpostresolver.util.EnvironmentUtil;
+
+import java.util.function.LongSupplier;
+
+//Tracks how much of the current invocation is left. The proxy does not expose the Lambda remaining time,
+//so the budget is configured on the function and should stay below its timeout.
+public class InvocationTimer {
+
+    private static final String INVOCATION_BUDGET_MILLIS = "INVOCATION_BUDGET_MILLIS";
+    private static final long DEFAULT_INVOCATION_BUDGET_MILLIS = 60_000L;
+
+    private final LongSupplier clock;
+    private final long deadline;
+
+    InvocationTimer(final long budgetMillis, final LongSupplier clock) {
+        this.clock = clock;
+        this.deadline = clock.getAsLong() + budgetMillis;
+    }
+
+    public static InvocationTimer start() {
+        return start(EnvironmentUtil.getLong(INVOCATION_BUDGET_MILLIS, DEFAULT_INVOCATION_BUDGET_MILLIS));
+    }
+
+    public static InvocationTimer start(final long budgetMillis) {
+        return new InvocationTimer(budgetMillis, System::currentTimeMillis);
+    }
+
+    public long remainingMillis() {
+        return Math.max(0L, deadline - clock.getAsLong());
+    }
+
+    public boolean hasTimeFor(final long millis) {
+        return remainingMillis() > millis;
+    }
+}
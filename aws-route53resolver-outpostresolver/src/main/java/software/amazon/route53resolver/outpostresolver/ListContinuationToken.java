@@ -0,0 +1,75 @@
+package software.amazon.route53resolver.outpostresolver;
+
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+//The token List hands back to CloudFormation. A response that ran out of bytes part way through a service page has
+//to say where in that page to carry on, so it carries the service token of the page, the id of the last resolver it
+//returned and how many of the page's resolvers were already returned. The id is what resumes the page, the offset is
+//only used when that resolver is gone by the time the page is read again. A response that used up its whole page
+//hands out the plain service token, which is also what earlier versions of the handler returned, so tokens issued
+//before an upgrade keep working.
+@Getter
+public class ListContinuationToken {
+
+    private static final String PREFIX = "olr1.";
+    private static final String ANCHORED_PREFIX = "olr2.";
+
+    //null for the first page
+    private final String serviceToken;
+    private final int offset;
+    //null for tokens issued before the id was carried
+    private final String lastId;
+
+    public ListContinuationToken(final String serviceToken, final int offset) {
+        this(serviceToken, offset, null);
+    }
+
+    public ListContinuationToken(final String serviceToken, final int offset, final String lastId) {
+        this.serviceToken = serviceToken;
+        this.offset = Math.max(0, offset);
+        this.lastId = lastId;
+    }
+
+    public String encode() {
+        if (offset == 0) {
+            return serviceToken;
+        }
+        final String token = encodePart(serviceToken == null ? "" : serviceToken);
+        if (lastId == null) {
+            return PREFIX + offset + "." + token;
+        }
+        return ANCHORED_PREFIX + offset + "." + encodePart(lastId) + "." + token;
+    }
+
+    public static ListContinuationToken decode(final String token) {
+        final boolean anchored = token != null && token.startsWith(ANCHORED_PREFIX);
+        if (token == null || !(anchored || token.startsWith(PREFIX))) {
+            return new ListContinuationToken(token, 0);
+        }
+        //base64url never contains a dot, so the parts split cleanly
+        final String[] parts = token.substring(PREFIX.length()).split("\\.", -1);
+        try {
+            if (parts.length != (anchored ? 3 : 2)) {
+                throw new IllegalArgumentException(token);
+            }
+            final int offset = Integer.parseInt(parts[0]);
+            final String lastId = anchored ? decodePart(parts[1]) : null;
+            final String serviceToken = decodePart(parts[parts.length - 1]);
+            return new ListContinuationToken(serviceToken.isEmpty() ? null : serviceToken, offset, lastId);
+        } catch (IllegalArgumentException e) {
+            //not one of ours after all, let ListOutpostResolvers judge it
+            return new ListContinuationToken(token, 0);
+        }
+    }
+
+    private static String encodePart(final String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodePart(final String value) {
+        return new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+    }
+}
@@ -2,6 +2,7 @@ package software.amazon.route53resolver.outpostresolver;
 
 import com.amazonaws.services.route53resolver.AmazonRoute53Resolver;
 import com.amazonaws.services.route53resolver.model.*;
+import org.json.JSONObject;
 import software.amazon.cloudformation.exceptions.*;
 import software.amazon.cloudformation.exceptions.ResourceNotFoundException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
@@ -9,12 +10,48 @@ import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.awssdk.services.route53resolver.Route53ResolverAsyncClient;
+import software.amazon.route53resolver.outpostresolver.util.EnvironmentUtil;
 
 import java.util.ArrayList;
 import java.util.List;
 
 public class ListHandler extends BaseHandler<CallbackContext> {
 
+    //ListOutpostResolvers accepts at most 100 results per page
+    private static final String LIST_PAGE_SIZE = "LIST_PAGE_SIZE";
+    private static final int DEFAULT_LIST_PAGE_SIZE = 50;
+    private static final int MAX_LIST_PAGE_SIZE = 100;
+
+    //what one response may carry, well below the handler payload limit so the wrapper's own fields always fit
+    private static final String LIST_RESPONSE_MAX_BYTES = "LIST_RESPONSE_MAX_BYTES";
+    private static final long DEFAULT_LIST_RESPONSE_MAX_BYTES = 1_048_576L;
+    //field names, quotes and separators of one model, a tag adds its own share on top
+    private static final int MODEL_OVERHEAD_BYTES = 256;
+    private static final int TAG_OVERHEAD_BYTES = 24;
+
+    private final int pageSize;
+    private final TagHydrator tagHydrator;
+    private final long maxResponseBytes;
+
+    public ListHandler() {
+        this(EnvironmentUtil.getInt(LIST_PAGE_SIZE, DEFAULT_LIST_PAGE_SIZE));
+    }
+
+    public ListHandler(final int pageSize) {
+        this(pageSize, new TagHydrator());
+    }
+
+    public ListHandler(final int pageSize, final TagHydrator tagHydrator) {
+        this(pageSize, tagHydrator, EnvironmentUtil.getLong(LIST_RESPONSE_MAX_BYTES, DEFAULT_LIST_RESPONSE_MAX_BYTES));
+    }
+
+    public ListHandler(final int pageSize, final TagHydrator tagHydrator, final long maxResponseBytes) {
+        this.pageSize = Math.max(1, Math.min(MAX_LIST_PAGE_SIZE, pageSize));
+        this.tagHydrator = tagHydrator;
+        this.maxResponseBytes = Math.max(1L, maxResponseBytes);
+    }
+
     @Override
     public ProgressEvent<ResourceModel, CallbackContext> handleRequest(
             final AmazonWebServicesClientProxy proxy,
@@ -22,9 +59,8 @@ public class ListHandler extends BaseHandler<CallbackContext> {
             final CallbackContext callbackContext,
             final Logger logger) {
 
-        ClientBuilder builder = new ClientBuilder();
         // This Lambda will continually be re-invoked with the current state of the stack, finally succeeding when state stabilizes.
-        return doHandleRequest(proxy, request, callbackContext, logger, builder.getClient());
+        return doHandleRequest(proxy, request, callbackContext, logger, ClientBuilder.getClient(), ClientBuilder.getAsyncClient());
     }
 
     public ProgressEvent<ResourceModel, CallbackContext> doHandleRequest(
@@ -33,41 +69,115 @@ public class ListHandler extends BaseHandler<CallbackContext> {
             final CallbackContext callbackContext,
             final Logger logger,
             final AmazonRoute53Resolver client) {
+        return doHandleRequest(proxy, request, callbackContext, logger, client, null);
+    }
+
+    public ProgressEvent<ResourceModel, CallbackContext> doHandleRequest(
+            final AmazonWebServicesClientProxy proxy,
+            final ResourceHandlerRequest<ResourceModel> request,
+            final CallbackContext callbackContext,
+            final Logger logger,
+            final AmazonRoute53Resolver client,
+            final Route53ResolverAsyncClient asyncClient) {
+
+        final ApiMetrics metrics = new ApiMetrics("List");
+        final ResolverApiInvoker invoker = new ResolverApiInvoker(proxy, logger, InvocationTimer.start(), metrics).forCaller(request);
+        final AsyncResolverReader reader = asyncClient == null ? null : new AsyncResolverReader(asyncClient, invoker);
+        try {
+            return handle(invoker, reader, request, callbackContext, new HandlerLogger(logger, "List"), client);
+        } finally {
+            //one set of EMF lines per invocation, including the ones that end in an exception
+            metrics.flush(logger);
+        }
+    }
 
-        final List<ResourceModel> responseModels = new ArrayList<>();
+    private ProgressEvent<ResourceModel, CallbackContext> handle(
+            final ResolverApiInvoker invoker,
+            final AsyncResolverReader reader,
+            final ResourceHandlerRequest<ResourceModel> request,
+            final CallbackContext callbackContext,
+            final HandlerLogger log,
+            final AmazonRoute53Resolver client) {
+
+        final CallbackContext context = callbackContext == null ? CallbackContext.builder().build() : callbackContext;
         final ResourceModel requestModel = request.getDesiredResourceState();
-        logger.log("ListHandler request: " + request);
+        log.request(request, false);
 
+        //CloudFormation hands back the token we returned on the previous page, one page is served per invocation. A
+        //response that stopped part way through a service page resumes it from the resolver it stopped at
+        final ListContinuationToken continuation = ListContinuationToken.decode(request.getNextToken());
         final ListOutpostResolversRequest listRequest = new ListOutpostResolversRequest()
-                .withOutpostArn(requestModel.getOutpostArn());
+                .withOutpostArn(requestModel == null ? null : requestModel.getOutpostArn())
+                .withMaxResults(pageSize)
+                .withNextToken(continuation.getServiceToken());
+        final List<ResourceModel> responseModels = new ArrayList<>(pageSize);
+        String nextToken = null;
 
         try {
             final ListOutpostResolversResult listResult =
-                    proxy.injectCredentialsAndInvoke(listRequest, client::listOutpostResolvers);
+                    invoker.invoke(listRequest, client::listOutpostResolvers);
             if (listResult != null) {
-                if (listResult.getNextToken()!=null){
-                    callbackContext.setListOperationNextToken(listResult.getNextToken());
+                final List<OutpostResolver> resolvers = listResult.getOutpostResolvers();
+                nextToken = listResult.getNextToken();
+                log.debug("Page", () -> new JSONObject()
+                        .put("resolvers", resolvers.size())
+                        .put("offset", continuation.getOffset())
+                        .put("hasMore", listResult.getNextToken() != null));
+
+                //models are mapped and hydrated a batch at a time, and a model only joins a batch while it still fits the
+                //budget with the tags an average model carried so far, so tags are rarely read for a model that is not sent
+                final int batchSize = tagHydrator.getConcurrency() * 2;
+                long responseBytes = 0L;
+                long tagBytes = 0L;
+                int index = resumeIndex(resolvers, continuation, log);
+                boolean full = false;
+                while (!full && index < resolvers.size()) {
+                    final List<ResourceModel> batch = new ArrayList<>(batchSize);
+                    final long expectedTagBytes = responseModels.isEmpty() ? 0L : tagBytes / responseModels.size();
+                    long plannedBytes = responseBytes;
+                    for (int next = index; next < resolvers.size() && batch.size() < batchSize; next++) {
+                        final ResourceModel resolverModel = ResolverModelMapper.toModel(resolvers.get(next));
+                        final long modelBytes = estimatedBytes(resolverModel) + expectedTagBytes;
+                        if (!(responseModels.isEmpty() && batch.isEmpty()) && plannedBytes + modelBytes > maxResponseBytes) {
+                            full = true;
+                            break;
+                        }
+                        plannedBytes += modelBytes;
+                        batch.add(resolverModel);
+                    }
+                    if (batch.isEmpty()) {
+                        break;
+                    }
+                    if (reader == null) {
+                        tagHydrator.hydrate(batch, client, invoker);
+                    } else {
+                        tagHydrator.hydrate(batch, reader);
+                    }
+                    for (ResourceModel resolverModel : batch) {
+                        final long modelBytes = estimatedBytes(resolverModel);
+                        //a response always carries at least one resolver, otherwise List could never move on
+                        if (!responseModels.isEmpty() && responseBytes + modelBytes > maxResponseBytes) {
+                            full = true;
+                            break;
+                        }
+                        responseBytes += modelBytes;
+                        tagBytes += estimatedTagBytes(resolverModel);
+                        responseModels.add(resolverModel);
+                        index++;
+                        log.debug("Read", () -> new JSONObject().put("id", resolverModel.getId()).put("status", resolverModel.getStatus()));
+                    }
                 }
-                logger.log("listResult.getOutpostResolvers().size()="+listResult.getOutpostResolvers().size());
-
-                for (OutpostResolver resolver : listResult.getOutpostResolvers()) {
-                    ResourceModel resolverModel = ResourceModel.builder()
-                            .id(resolver.getId())
-                            .arn(resolver.getArn())
-                            .outpostArn(resolver.getOutpostArn())
-                            .instanceCount(resolver.getInstanceCount())
-                            .preferredInstanceType(resolver.getPreferredInstanceType())
-                            .name(resolver.getName())
-                            .status(resolver.getStatus())
-                            .statusMessage(resolver.getStatusMessage())
-                            .creationTime(resolver.getCreationTime())
-                            .creatorRequestId(resolver.getCreatorRequestId())
-                            .build();
-                    resolverModel.setTags(TagHelper.listAndTranslateTags(client, proxy, resolverModel));
-                    responseModels.add(resolverModel);
-                    logger.log(String.format("%s [%s] read successfully",
-                            ResourceModel.TYPE_NAME, resolverModel.getPrimaryIdentifier().toString()));
+                if (index < resolvers.size()) {
+                    final String lastId = responseModels.isEmpty() ? continuation.getLastId() : responseModels.get(responseModels.size() - 1).getId();
+                    nextToken = new ListContinuationToken(continuation.getServiceToken(), index, lastId).encode();
+                    final int returned = responseModels.size();
+                    final long bytes = responseBytes;
+                    log.info("ResponseBudgetReached", () -> new JSONObject()
+                            .put("returned", returned)
+                            .put("estimatedBytes", bytes)
+                            .put("maxResponseBytes", maxResponseBytes));
                 }
+                context.setListOperationNextToken(nextToken);
             }
         } catch (InvalidRequestException | InvalidParameterException | ValidationException e) {
             throw new CfnInvalidRequestException(listRequest.toString(), e);
@@ -81,9 +191,75 @@ public class ListHandler extends BaseHandler<CallbackContext> {
             throw new  CfnThrottlingException(ResourceModel.TYPE_NAME, e);
         }
         return ProgressEvent.<ResourceModel, CallbackContext>builder()
-                .callbackContext(callbackContext)
+                .callbackContext(context)
                 .resourceModels(responseModels)
+                .nextToken(nextToken)
                 .status(OperationStatus.SUCCESS)
                 .build();
     }
+
+    //a resumed page carries on after the last resolver returned from it. Resolvers created or deleted in the meantime
+    //shift the page, so the id is what places us. Only when that resolver is gone too does the offset stand in, and a
+    //shifted page can then repeat or skip a resolver around the gap
+    private static int resumeIndex(final List<OutpostResolver> resolvers, final ListContinuationToken continuation, final HandlerLogger log) {
+        if (continuation.getLastId() != null) {
+            for (int i = 0; i < resolvers.size(); i++) {
+                if (continuation.getLastId().equals(resolvers.get(i).getId())) {
+                    return i + 1;
+                }
+            }
+            log.info("ResumeAnchorMissing", () -> new JSONObject()
+                    .put("lastId", continuation.getLastId())
+                    .put("offset", continuation.getOffset()));
+        }
+        return Math.min(continuation.getOffset(), resolvers.size());
+    }
+
+    //what the model adds to the serialized response, close enough to budget with and cheap enough to run per model
+    static long estimatedBytes(final ResourceModel model) {
+        return MODEL_OVERHEAD_BYTES
+                + utf8Length(model.getId())
+                + utf8Length(model.getArn())
+                + utf8Length(model.getOutpostArn())
+                + utf8Length(model.getPreferredInstanceType())
+                + utf8Length(model.getName())
+                + utf8Length(model.getStatus())
+                + utf8Length(model.getStatusMessage())
+                + utf8Length(model.getCreationTime())
+                + utf8Length(model.getModificationTime())
+                + utf8Length(model.getCreatorRequestId())
+                + estimatedTagBytes(model);
+    }
+
+    private static long estimatedTagBytes(final ResourceModel model) {
+        long bytes = 0L;
+        if (model.getTags() != null) {
+            for (Tag tag : model.getTags()) {
+                bytes += TAG_OVERHEAD_BYTES + utf8Length(tag.getKey()) + utf8Length(tag.getValue());
+            }
+        }
+        return bytes;
+    }
+
+    //counted without encoding the string, tag values are the only fields likely to hold anything beyond ASCII
+    private static int utf8Length(final String value) {
+        if (value == null) {
+            return 0;
+        }
+        int bytes = 0;
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
 }
@@ -0,0 +1,136 @@
+package software.amazon.route53resolver.outpostresolver;
+
+import com.amazonaws.services.route53resolver.AmazonRoute53Resolver;
+import com.amazonaws.services.route53resolver.model.AccessDeniedException;
+import com.amazonaws.services.route53resolver.model.ListOutpostResolversRequest;
+import com.amazonaws.services.route53resolver.model.ListOutpostResolversResult;
+import com.amazonaws.services.route53resolver.model.OutpostResolver;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.route53resolver.outpostresolver.util.EnvironmentUtil;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//Serves Reads of resolvers on the same outpost from one ListOutpostResolvers sweep when they arrive together, which
+//is what fleet wide drift checks look like from inside one JVM. A Read only waits when its outpost is busy, that is
+//another Read for it came in within the last second: it then opens a short window, every Read for that outpost
+//arriving inside it waits for the sweep, and a Read nobody joined simply does its own GetOutpostResolver. A Read of a
+//quiet outpost goes straight to GetOutpostResolver without waiting. Sweeps are per account and region so one caller's
+//listing never answers another account. Off unless READ_COALESCING_ENABLED is set.
+public class OutpostReadCoalescer {
+
+    private static final String READ_COALESCING_ENABLED = "READ_COALESCING_ENABLED";
+    private static final String READ_COALESCING_WINDOW_MILLIS = "READ_COALESCING_WINDOW_MILLIS";
+    private static final long DEFAULT_WINDOW_MILLIS = 25L;
+    private static final int SWEEP_PAGE_SIZE = 100;
+    //how recent the previous Read of an outpost has to be for the next one to wait for company
+    private static final long BUSY_OUTPOST_MILLIS = 1_000L;
+
+    private static final OutpostReadCoalescer SHARED = new OutpostReadCoalescer(
+            EnvironmentUtil.getBoolean(READ_COALESCING_ENABLED, false),
+            EnvironmentUtil.getLong(READ_COALESCING_WINDOW_MILLIS, DEFAULT_WINDOW_MILLIS));
+
+    private final boolean enabled;
+    private final long windowMillis;
+    private final ConcurrentMap<String, Sweep> openSweeps = new ConcurrentHashMap<>();
+    //when the latest Read of each outpost came in
+    private final ConcurrentMap<String, Long> lastArrivals = new ConcurrentHashMap<>();
+
+    private static class Sweep {
+        //null when nobody joined and no sweep was run, or the sweep was not allowed
+        private final CompletableFuture<Map<String, OutpostResolver>> resolvers = new CompletableFuture<>();
+        private final AtomicInteger followers = new AtomicInteger();
+    }
+
+    public OutpostReadCoalescer(final boolean enabled, final long windowMillis) {
+        this.enabled = enabled;
+        this.windowMillis = Math.max(0L, windowMillis);
+    }
+
+    public static OutpostReadCoalescer shared() {
+        return SHARED;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    //the resolver as the sweep saw it, or null when the caller should fall back to GetOutpostResolver
+    public OutpostResolver read(
+            final ResourceHandlerRequest<ResourceModel> request,
+            final String outpostArn,
+            final String id,
+            final ResolverApiInvoker invoker,
+            final AmazonRoute53Resolver client) {
+
+        if (!enabled || outpostArn == null || id == null) {
+            return null;
+        }
+        final String key = request.getAwsAccountId() + "/" + request.getRegion() + "/" + outpostArn;
+        final long now = System.currentTimeMillis();
+        final Long previousArrival = lastArrivals.put(key, now);
+        if ((previousArrival == null || now - previousArrival > BUSY_OUTPOST_MILLIS) && !openSweeps.containsKey(key)) {
+            //nobody to share a sweep with, waiting would only delay this Read
+            return null;
+        }
+        final Sweep opened = new Sweep();
+        final Sweep existing = openSweeps.putIfAbsent(key, opened);
+        if (existing != null) {
+            existing.followers.incrementAndGet();
+            return find(ResolverApiInvoker.join(existing.resolvers), id);
+        }
+
+        try {
+            Thread.sleep(windowMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        //Reads arriving from here on open a window of their own
+        openSweeps.remove(key, opened);
+        if (opened.followers.get() == 0) {
+            opened.resolvers.complete(null);
+            return null;
+        }
+        try {
+            opened.resolvers.complete(sweep(outpostArn, invoker, client));
+        } catch (AccessDeniedException e) {
+            //a role without ListOutpostResolvers can still read each resolver on its own
+            opened.resolvers.complete(null);
+            return null;
+        } catch (RuntimeException e) {
+            //every waiting Read fails the way its own call would have
+            opened.resolvers.completeExceptionally(e);
+            throw e;
+        }
+        return find(opened.resolvers.join(), id);
+    }
+
+    private static Map<String, OutpostResolver> sweep(
+            final String outpostArn,
+            final ResolverApiInvoker invoker,
+            final AmazonRoute53Resolver client) {
+
+        final Map<String, OutpostResolver> resolvers = new HashMap<>();
+        String nextToken = null;
+        do {
+            final ListOutpostResolversResult page = invoker.invoke(new ListOutpostResolversRequest()
+                    .withOutpostArn(outpostArn)
+                    .withMaxResults(SWEEP_PAGE_SIZE)
+                    .withNextToken(nextToken), client::listOutpostResolvers);
+            nextToken = null;
+            if (page != null) {
+                page.getOutpostResolvers().forEach(resolver -> resolvers.put(resolver.getId(), resolver));
+                nextToken = page.getNextToken();
+            }
+        } while (nextToken != null);
+        return resolvers;
+    }
+
+    private static OutpostResolver find(final Map<String, OutpostResolver> resolvers, final String id) {
+        return resolvers == null ? null : resolvers.get(id);
+    }
+}
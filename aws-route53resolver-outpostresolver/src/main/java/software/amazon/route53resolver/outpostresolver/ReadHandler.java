@@ -2,12 +2,33 @@ package software.amazon.route53resolver.outpostresolver;
 
 import com.amazonaws.services.route53resolver.AmazonRoute53Resolver;
 import com.amazonaws.services.route53resolver.model.*;
+import org.json.JSONObject;
 import software.amazon.cloudformation.exceptions.*;
 import software.amazon.cloudformation.exceptions.ResourceNotFoundException;
 import software.amazon.cloudformation.proxy.*;
+import software.amazon.awssdk.services.route53resolver.Route53ResolverAsyncClient;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 public class ReadHandler extends BaseHandler<CallbackContext> {
 
+    private final ResolverSnapshotCache cache;
+    private final OutpostReadCoalescer coalescer;
+
+    public ReadHandler() {
+        this(ResolverSnapshotCache.shared());
+    }
+
+    public ReadHandler(final ResolverSnapshotCache cache) {
+        this(cache, OutpostReadCoalescer.shared());
+    }
+
+    public ReadHandler(final ResolverSnapshotCache cache, final OutpostReadCoalescer coalescer) {
+        this.cache = cache;
+        this.coalescer = coalescer;
+    }
+
     @Override
     public ProgressEvent<ResourceModel, CallbackContext> handleRequest(
             final AmazonWebServicesClientProxy proxy,
@@ -15,9 +36,8 @@ public class ReadHandler extends BaseHandler<CallbackContext> {
             final CallbackContext callbackContext,
             final Logger logger) {
 
-        ClientBuilder builder = new ClientBuilder();
         // This Lambda will continually be re-invoked with the current state of the stack, finally succeeding when state stabilizes.
-        return doHandleRequest(proxy, request, callbackContext, logger, builder.getClient());
+        return doHandleRequest(proxy, request, callbackContext, logger, ClientBuilder.getClient(), ClientBuilder.getAsyncClient());
     }
 
     public ProgressEvent<ResourceModel, CallbackContext> doHandleRequest(
@@ -26,27 +46,79 @@ public class ReadHandler extends BaseHandler<CallbackContext> {
             final CallbackContext callbackContext,
             final Logger logger,
             final AmazonRoute53Resolver client) {
+        return doHandleRequest(proxy, request, callbackContext, logger, client, null);
+    }
+
+    public ProgressEvent<ResourceModel, CallbackContext> doHandleRequest(
+            final AmazonWebServicesClientProxy proxy,
+            final ResourceHandlerRequest<ResourceModel> request,
+            final CallbackContext callbackContext,
+            final Logger logger,
+            final AmazonRoute53Resolver client,
+            final Route53ResolverAsyncClient asyncClient) {
+
+        final ApiMetrics metrics = new ApiMetrics("Read");
+        final ResolverApiInvoker invoker = new ResolverApiInvoker(proxy, logger, InvocationTimer.start(), metrics).forCaller(request);
+        final AsyncResolverReader reader = asyncClient == null ? null : new AsyncResolverReader(asyncClient, invoker);
+        try {
+            return handle(invoker, reader, request, callbackContext, new HandlerLogger(logger, "Read"), client);
+        } finally {
+            //one set of EMF lines per invocation, including the ones that end in an exception
+            metrics.flush(logger);
+        }
+    }
+
+    private ProgressEvent<ResourceModel, CallbackContext> handle(
+            final ResolverApiInvoker invoker,
+            final AsyncResolverReader reader,
+            final ResourceHandlerRequest<ResourceModel> request,
+            final CallbackContext callbackContext,
+            final HandlerLogger log,
+            final AmazonRoute53Resolver client) {
 
         final ResourceModel model = request.getDesiredResourceState();
-        logger.log("ReadHandler request: " + request);
+        log.request(request, false);
+        if (cache.isEnabled()) {
+            final ResourceModel cached = cache.get(request, model.getId());
+            invoker.getMetrics().recordCacheLookup(cached != null);
+            if (cached != null) {
+                log.debug("ReadFromCache", () -> new JSONObject().put("id", cached.getId()).put("status", cached.getStatus()));
+                return ProgressEvent.<ResourceModel, CallbackContext>builder()
+                        .resourceModel(cached)
+                        .status(OperationStatus.SUCCESS)
+                        .build();
+            }
+        }
+        //a mutation finishing while this Read is out must not be undone by putting what the Read saw
+        final long generation = cache.generation(request, model.getId());
         final GetOutpostResolverRequest readRequest = new GetOutpostResolverRequest()
                 .withId(model.getId());
+        CompletableFuture<Set<Tag>> pendingTags = null;
+        final String expectedArn = reader == null ? null : expectedArn(request, model);
         try {
-            final GetOutpostResolverResult getResult =
-                    proxy.injectCredentialsAndInvoke(readRequest, client::getOutpostResolver);
+            //the tags only need the ARN, so when it can be worked out up front both calls run side by side
+            if (expectedArn != null) {
+                pendingTags = reader.listTags(expectedArn);
+            }
+            //Reads of many resolvers on one outpost can share a single listing, a miss still does its own Get
+            final OutpostResolver coalesced = coalescer.read(request, model.getOutpostArn(), model.getId(), invoker, client);
+            final GetOutpostResolverResult getResult;
+            if (coalesced != null) {
+                getResult = new GetOutpostResolverResult().withOutpostResolver(coalesced);
+            } else if (reader == null) {
+                getResult = invoker.invoke(readRequest, client::getOutpostResolver);
+            } else {
+                getResult = new GetOutpostResolverResult()
+                        .withOutpostResolver(ResolverApiInvoker.join(reader.getOutpostResolver(model.getId())));
+            }
             if (getResult != null && getResult.getOutpostResolver()!=null) {
-                model.setId(getResult.getOutpostResolver().getId());
-                model.setArn(getResult.getOutpostResolver().getArn());
-                model.setOutpostArn(getResult.getOutpostResolver().getOutpostArn());
-                model.setInstanceCount(getResult.getOutpostResolver().getInstanceCount());
-                model.setPreferredInstanceType(getResult.getOutpostResolver().getPreferredInstanceType());
-                model.setName(getResult.getOutpostResolver().getName());
-                model.setStatus(getResult.getOutpostResolver().getStatus());
-                model.setStatusMessage(getResult.getOutpostResolver().getStatusMessage());
-                model.setCreatorRequestId(getResult.getOutpostResolver().getCreatorRequestId());
-                model.setCreationTime(getResult.getOutpostResolver().getCreationTime());
-                model.setModificationTime(getResult.getOutpostResolver().getModificationTime());
-                model.setTags(TagHelper.listAndTranslateTags(client, proxy, model));
+                ResolverModelMapper.mapFields(model, getResult.getOutpostResolver());
+                if (reader == null) {
+                    model.setTags(TagHelper.listAndTranslateTags(client, invoker, model));
+                } else {
+                    model.setTags(TagHelper.awaitTags(pendingTags != null && expectedArn.equals(model.getArn())
+                            ? pendingTags : reader.listTags(model.getArn()), model));
+                }
             } else {
                 return ProgressEvent.<ResourceModel, CallbackContext>builder()
                         .resourceModel(model)
@@ -54,8 +126,7 @@ public class ReadHandler extends BaseHandler<CallbackContext> {
                         .errorCode(HandlerErrorCode.NotFound)
                         .build();
             }
-            logger.log(String.format("%s [%s] read successfully",
-                    ResourceModel.TYPE_NAME, model.getPrimaryIdentifier().toString()));
+            log.debug("Read", () -> new JSONObject().put("id", model.getId()).put("status", model.getStatus()));
         } catch (InvalidRequestException | InvalidParameterException | ValidationException e) {
             throw new CfnInvalidRequestException(readRequest.toString(), e);
         } catch (ResourceNotFoundException e) {
@@ -66,11 +137,30 @@ public class ReadHandler extends BaseHandler<CallbackContext> {
             throw new CfnServiceInternalErrorException(ResourceModel.TYPE_NAME, e);
         } catch (ThrottlingException e) {
             throw new  CfnThrottlingException(ResourceModel.TYPE_NAME, e);
+        } finally {
+            //a no-op once the tags were used, otherwise the Get failed, found nothing or came back with another ARN
+            //and the early tag read only holds a slot and keeps paging for nobody
+            if (pendingTags != null) {
+                pendingTags.cancel(false);
+            }
         }
+        cache.put(request, model, generation);
         return ProgressEvent.<ResourceModel, CallbackContext>builder()
                 .resourceModel(model)
                 .status(OperationStatus.SUCCESS)
                 .build();
     }
 
+    //outpost resolver ARNs are built from the request's partition, region and account, null when any is missing
+    private static String expectedArn(final ResourceHandlerRequest<ResourceModel> request, final ResourceModel model) {
+        if (model.getArn() != null) {
+            return model.getArn();
+        }
+        if (request.getAwsPartition() == null || request.getRegion() == null || request.getAwsAccountId() == null
+                || model.getId() == null) {
+            return null;
+        }
+        return String.format("arn:%s:route53resolver:%s:%s:outpost-resolver/%s",
+                request.getAwsPartition(), request.getRegion(), request.getAwsAccountId(), model.getId());
+    }
 }
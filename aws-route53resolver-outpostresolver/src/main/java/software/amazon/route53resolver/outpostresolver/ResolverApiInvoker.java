@@ -0,0 +1,373 @@
+package software.amazon.route53resolver.outpostresolver;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.AmazonWebServiceRequest;
+import com.amazonaws.AmazonWebServiceResult;
+import com.amazonaws.ResponseMetadata;
+import com.amazonaws.SdkClientException;
+import com.amazonaws.retry.RetryUtils;
+import com.amazonaws.services.route53resolver.model.GetOutpostResolverRequest;
+import com.amazonaws.services.route53resolver.model.InternalServiceErrorException;
+import com.amazonaws.services.route53resolver.model.ListTagsForResourceRequest;
+import com.amazonaws.services.route53resolver.model.ThrottlingException;
+import org.json.JSONObject;
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsResponse;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.route53resolver.outpostresolver.util.EnvironmentUtil;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+//Every Route53Resolver call goes through here. Throttling and transient service errors are retried with
+//decorrelated jitter while the shared retry budget and the invocation time allow it; anything else, or the
+//last failure once we give up, is rethrown unchanged so the handlers keep their existing error mapping.
+public class ResolverApiInvoker {
+
+    private static final String RETRY_MAX_ATTEMPTS = "RETRY_MAX_ATTEMPTS";
+    private static final int DEFAULT_MAX_ATTEMPTS = 4;
+    private static final long BASE_DELAY_MILLIS = 100L;
+    private static final long MAX_DELAY_MILLIS = 5_000L;
+    //callback delay ceiling for work handed back to CloudFormation because the service kept throttling
+    private static final int MAX_THROTTLE_BACKOFF_SECONDS = 32;
+    //never start a retry that would leave less than this for the call itself and the response
+    private static final long RETRY_RESERVE_MILLIS = 5_000L;
+    //metrics of invokers created outside a handler action are never flushed
+    private static final String UNKNOWN_ACTION = "Unknown";
+    //how often an async call waiting for a slot looks again
+    private static final long SLOT_RECHECK_MILLIS = 10L;
+    //waits out async retry delays and slot waits, the attempts themselves run on the SDK's threads
+    private static final ScheduledExecutorService RETRY_TIMER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "resolver-async-retry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AmazonWebServicesClientProxy proxy;
+    private final HandlerLogger log;
+    private final InvocationTimer timer;
+    private final RetryTokenBucket retryBudget;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final SingleFlight singleFlight;
+    private final ApiMetrics metrics;
+    private final int maxAttempts;
+    private final AtomicInteger retries = new AtomicInteger();
+    //reads are only shared between invokers of the same caller, invokers that never learn theirs share nothing
+    private volatile String callerIdentity;
+
+    public ResolverApiInvoker(final AmazonWebServicesClientProxy proxy) {
+        this(proxy, message -> { }, InvocationTimer.start());
+    }
+
+    public ResolverApiInvoker(final AmazonWebServicesClientProxy proxy, final Logger logger, final InvocationTimer timer) {
+        this(proxy, logger, timer, new ApiMetrics(UNKNOWN_ACTION));
+    }
+
+    public ResolverApiInvoker(final AmazonWebServicesClientProxy proxy, final Logger logger, final InvocationTimer timer,
+                              final ApiMetrics metrics) {
+        this(proxy, logger, timer, RetryTokenBucket.shared(), AdaptiveConcurrencyLimiter.shared(), metrics,
+                EnvironmentUtil.getInt(RETRY_MAX_ATTEMPTS, DEFAULT_MAX_ATTEMPTS));
+    }
+
+    public ResolverApiInvoker(final AmazonWebServicesClientProxy proxy, final Logger logger, final InvocationTimer timer,
+                              final RetryTokenBucket retryBudget, final int maxAttempts) {
+        this(proxy, logger, timer, retryBudget, AdaptiveConcurrencyLimiter.shared(), new ApiMetrics(UNKNOWN_ACTION), maxAttempts);
+    }
+
+    public ResolverApiInvoker(final AmazonWebServicesClientProxy proxy, final Logger logger, final InvocationTimer timer,
+                              final RetryTokenBucket retryBudget, final AdaptiveConcurrencyLimiter limiter,
+                              final ApiMetrics metrics, final int maxAttempts) {
+        this(proxy, logger, timer, retryBudget, limiter, SingleFlight.shared(), metrics, maxAttempts);
+    }
+
+    public ResolverApiInvoker(final AmazonWebServicesClientProxy proxy, final Logger logger, final InvocationTimer timer,
+                              final RetryTokenBucket retryBudget, final AdaptiveConcurrencyLimiter limiter,
+                              final SingleFlight singleFlight, final ApiMetrics metrics, final int maxAttempts) {
+        this.proxy = proxy;
+        this.log = new HandlerLogger(logger, metrics.getAction());
+        this.timer = timer;
+        this.retryBudget = retryBudget;
+        this.limiter = limiter;
+        this.singleFlight = singleFlight;
+        this.metrics = metrics;
+        this.maxAttempts = Math.max(1, maxAttempts);
+    }
+
+    //handler credentials never reach the handler code, the account and region of the request are the closest we get
+    //to who is calling, the same scope the read cache and the outpost sweeps use. That is why single flight is opt-in
+    public ResolverApiInvoker forCaller(final ResourceHandlerRequest<ResourceModel> request) {
+        this.callerIdentity = request.getAwsAccountId() + "/" + request.getRegion();
+        return this;
+    }
+
+    public <RequestT extends AmazonWebServiceRequest, ResultT extends AmazonWebServiceResult<ResponseMetadata>> ResultT invoke(
+            final RequestT request,
+            final Function<RequestT, ResultT> requestFunction) {
+
+        final String flightKey = flightKey(request);
+        if (flightKey == null) {
+            return invokeWithRetries(request, requestFunction);
+        }
+        //a caller that joins gets the result of the other call's retries too, so it never retries on its own
+        return singleFlight.execute(flightKey, () -> invokeWithRetries(request, requestFunction),
+                () -> metrics.recordSharedCall(operationName(request)));
+    }
+
+    private <RequestT extends AmazonWebServiceRequest, ResultT extends AmazonWebServiceResult<ResponseMetadata>> ResultT invokeWithRetries(
+            final RequestT request,
+            final Function<RequestT, ResultT> requestFunction) {
+
+        long delay = BASE_DELAY_MILLIS;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                final ResultT result = invokeWithinLimit(request, requestFunction);
+                retryBudget.recordSuccess();
+                return result;
+            } catch (RuntimeException e) {
+                delay = nextRetryDelay(request, e, attempt, delay);
+                if (delay < 0) {
+                    throw e;
+                }
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    //the SDK v2 async client goes through the same slots, retry budget and metrics as the blocking one. Failures are
+    //converted to their SDK v1 counterparts before anything looks at them, so callers keep their existing catch blocks
+    //and only have to join the future through join() below. Retries wait on a timer instead of a blocked thread.
+    public <RequestT extends AwsRequest, ResponseT extends AwsResponse> CompletableFuture<ResponseT> invokeAsync(
+            final RequestT request,
+            final Function<RequestT, CompletableFuture<ResponseT>> requestFunction) {
+
+        final String flightKey = flightKey(request);
+        if (flightKey == null) {
+            return attemptAsync(request, requestFunction);
+        }
+        return singleFlight.executeAsync(flightKey, () -> attemptAsync(request, requestFunction),
+                () -> metrics.recordSharedCall(operationName(request)));
+    }
+
+    private <RequestT extends AwsRequest, ResponseT extends AwsResponse> CompletableFuture<ResponseT> attemptAsync(
+            final RequestT request,
+            final Function<RequestT, CompletableFuture<ResponseT>> requestFunction) {
+
+        final CompletableFuture<ResponseT> result = new CompletableFuture<>();
+        attemptAsync(request, requestFunction, 1, BASE_DELAY_MILLIS, result);
+        return result;
+    }
+
+    //only the reads a handler repeats for one resource are shared, keyed by everything that shapes their response.
+    //The SDK v1 and v2 responses are different types, so the two never share a call with each other
+    private String flightKey(final Object request) {
+        if (callerIdentity == null || !singleFlight.isEnabled()) {
+            return null;
+        }
+        final String resource;
+        if (request instanceof GetOutpostResolverRequest) {
+            resource = ((GetOutpostResolverRequest) request).getId();
+        } else if (request instanceof ListTagsForResourceRequest) {
+            final ListTagsForResourceRequest listTags = (ListTagsForResourceRequest) request;
+            resource = listTags.getResourceArn() + "/" + listTags.getNextToken() + "/" + listTags.getMaxResults();
+        } else if (request instanceof software.amazon.awssdk.services.route53resolver.model.GetOutpostResolverRequest) {
+            resource = ((software.amazon.awssdk.services.route53resolver.model.GetOutpostResolverRequest) request).id();
+        } else if (request instanceof software.amazon.awssdk.services.route53resolver.model.ListTagsForResourceRequest) {
+            final software.amazon.awssdk.services.route53resolver.model.ListTagsForResourceRequest listTags =
+                    (software.amazon.awssdk.services.route53resolver.model.ListTagsForResourceRequest) request;
+            resource = listTags.resourceArn() + "/" + listTags.nextToken() + "/" + listTags.maxResults();
+        } else {
+            return null;
+        }
+        final String sdk = request instanceof AwsRequest ? "v2" : "v1";
+        return callerIdentity + "/" + sdk + "/" + operationName(request) + "/" + resource;
+    }
+
+    //waits for a future from invokeAsync and rethrows its failure unwrapped, the way invoke() would have thrown it
+    public static <T> T join(final CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException | CancellationException e) {
+            throw SdkV2Exceptions.toV1(e);
+        }
+    }
+
+    private <RequestT extends AwsRequest, ResponseT extends AwsResponse> void attemptAsync(
+            final RequestT request,
+            final Function<RequestT, CompletableFuture<ResponseT>> requestFunction,
+            final int attempt,
+            final long previousDelay,
+            final CompletableFuture<ResponseT> result) {
+
+        if (result.isDone()) {
+            //cancelled by the caller while waiting, nobody wants the answer any more
+            return;
+        }
+        //this runs on the retry timer and on SDK completion threads shared by every call in the container, so it
+        //never blocks on the limiter: without a free slot it looks again shortly, up to the same deadline acquireSlot uses
+        if (!limiter.tryAcquire()) {
+            if (timer.remainingMillis() - RETRY_RESERVE_MILLIS <= SLOT_RECHECK_MILLIS) {
+                result.completeExceptionally(noCapacity(request));
+            } else {
+                RETRY_TIMER.schedule(() -> attemptAsync(request, requestFunction, attempt, previousDelay, result),
+                        SLOT_RECHECK_MILLIS, TimeUnit.MILLISECONDS);
+            }
+            return;
+        }
+        final long start = System.currentTimeMillis();
+        CompletableFuture<ResponseT> call;
+        try {
+            call = proxy.injectCredentialsAndInvokeV2Async(request, requestFunction);
+        } catch (RuntimeException e) {
+            call = new CompletableFuture<>();
+            call.completeExceptionally(e);
+        }
+
+        call.whenComplete((response, failure) -> {
+            final long latency = System.currentTimeMillis() - start;
+            if (failure == null) {
+                limiter.onSuccess(latency);
+                metrics.recordCall(operationName(request), latency, null);
+                retryBudget.recordSuccess();
+                result.complete(response);
+                return;
+            }
+            final RuntimeException e = SdkV2Exceptions.toV1(failure);
+            recordFailure(request, latency, e);
+            final long delay = nextRetryDelay(request, e, attempt, previousDelay);
+            if (delay < 0) {
+                result.completeExceptionally(e);
+            } else {
+                RETRY_TIMER.schedule(() -> attemptAsync(request, requestFunction, attempt + 1, delay, result),
+                        delay, TimeUnit.MILLISECONDS);
+            }
+        });
+    }
+
+    //callback delay for a read that checkpointed because it was throttled, the ceiling doubles with every consecutive
+    //such checkpoint and the delay is drawn from its upper half, so resources throttled together do not all come back
+    //together. 0 when the checkpoint had nothing to do with throttling
+    public static int throttleBackoffSeconds(final int throttledCheckpoints) {
+        if (throttledCheckpoints <= 0) {
+            return 0;
+        }
+        final int ceiling = Math.min(MAX_THROTTLE_BACKOFF_SECONDS, 1 << Math.min(5, throttledCheckpoints));
+        return ThreadLocalRandom.current().nextInt(ceiling / 2, ceiling + 1);
+    }
+
+    //returns how long to wait before the next attempt, or -1 when the failure has to be rethrown
+    private long nextRetryDelay(final Object request, final RuntimeException e, final int attempt, final long previousDelay) {
+        if (!isRetryable(e) || attempt >= maxAttempts) {
+            return -1L;
+        }
+        //decorrelated jitter: the next delay is drawn between the base and three times the previous one
+        final long delay = Math.min(MAX_DELAY_MILLIS, ThreadLocalRandom.current().nextLong(BASE_DELAY_MILLIS, previousDelay * 3 + 1));
+        if (!timer.hasTimeFor(delay + RETRY_RESERVE_MILLIS) || !retryBudget.tryAcquireRetry()) {
+            return -1L;
+        }
+        retries.incrementAndGet();
+        metrics.recordRetry(operationName(request));
+        log.warn("Retry", () -> new JSONObject()
+                .put("operation", operationName(request))
+                .put("error", e.getClass().getSimpleName())
+                .put("attempt", attempt + 1)
+                .put("maxAttempts", maxAttempts)
+                .put("delayMillis", delay)
+                .put("concurrency", limiter.toString()));
+        return delay;
+    }
+
+    private <RequestT extends AmazonWebServiceRequest, ResultT extends AmazonWebServiceResult<ResponseMetadata>> ResultT invokeWithinLimit(
+            final RequestT request,
+            final Function<RequestT, ResultT> requestFunction) {
+
+        acquireSlot(request);
+        final long start = System.currentTimeMillis();
+        try {
+            final ResultT result = proxy.injectCredentialsAndInvoke(request, requestFunction);
+            final long latency = System.currentTimeMillis() - start;
+            limiter.onSuccess(latency);
+            metrics.recordCall(operationName(request), latency, null);
+            return result;
+        } catch (RuntimeException e) {
+            recordFailure(request, System.currentTimeMillis() - start, e);
+            throw e;
+        }
+    }
+
+    private void recordFailure(final Object request, final long latencyMillis, final RuntimeException e) {
+        metrics.recordCall(operationName(request), latencyMillis, e);
+        if (isThrottling(e)) {
+            limiter.onThrottled();
+        } else {
+            limiter.onFailure();
+        }
+    }
+
+    private void acquireSlot(final Object request) {
+        final boolean acquired;
+        try {
+            acquired = limiter.acquire(Math.max(0L, timer.remainingMillis() - RETRY_RESERVE_MILLIS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ThrottlingException("Interrupted while waiting to call " + request.getClass().getSimpleName());
+        }
+        if (!acquired) {
+            throw noCapacity(request);
+        }
+    }
+
+    //surfaced as throttling so the handlers map it the same way as a throttled call
+    private ThrottlingException noCapacity(final Object request) {
+        return new ThrottlingException(String.format("No capacity to call %s before the invocation budget runs out, concurrency %s",
+                request.getClass().getSimpleName(), limiter));
+    }
+
+    public int getRetryCount() {
+        return retries.get();
+    }
+
+    public InvocationTimer getTimer() {
+        return timer;
+    }
+
+    public ApiMetrics getMetrics() {
+        return metrics;
+    }
+
+    //GetOutpostResolverRequest -> GetOutpostResolver, the name CloudTrail and the API reference use
+    static String operationName(final Object request) {
+        final String name = request.getClass().getSimpleName();
+        return name.endsWith("Request") ? name.substring(0, name.length() - "Request".length()) : name;
+    }
+
+    static boolean isThrottling(final RuntimeException e) {
+        return e instanceof ThrottlingException
+                || e instanceof AmazonServiceException && RetryUtils.isThrottlingException((AmazonServiceException) e);
+    }
+
+    static boolean isRetryable(final RuntimeException e) {
+        if (e instanceof ThrottlingException || e instanceof InternalServiceErrorException) {
+            return true;
+        }
+        if (e instanceof AmazonServiceException) {
+            final AmazonServiceException serviceException = (AmazonServiceException) e;
+            return RetryUtils.isThrottlingException(serviceException) || RetryUtils.isRetryableServiceException(serviceException);
+        }
+        //client side failures such as connection resets, the SDK marks which ones are safe to repeat
+        return e instanceof SdkClientException && ((SdkClientException) e).isRetryable();
+    }
+}
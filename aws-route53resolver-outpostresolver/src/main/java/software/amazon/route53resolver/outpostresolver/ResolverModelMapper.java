@@ -0,0 +1,57 @@
+package software.amazon.route53resolver.outpostresolver;
+
+import com.amazonaws.services.route53resolver.model.OutpostResolver;
+
+import java.util.Objects;
+
+//The one place an OutpostResolver becomes a ResourceModel, for Read, List and the stabilization polls alike.
+//Every change the service makes to a resolver moves its ModificationTime or its Status, so the two together tell
+//whether a poll saw anything new. refresh() keeps that fingerprint in the CallbackContext and leaves the model
+//alone when neither moved and the model already shows them.
+public final class ResolverModelMapper {
+
+    private ResolverModelMapper() {
+    }
+
+    public static ResourceModel toModel(final OutpostResolver resolver) {
+        final ResourceModel model = ResourceModel.builder().build();
+        mapFields(model, resolver);
+        return model;
+    }
+
+    public static void mapFields(final ResourceModel model, final OutpostResolver resolver) {
+        model.setId(resolver.getId());
+        model.setArn(resolver.getArn());
+        model.setOutpostArn(resolver.getOutpostArn());
+        model.setInstanceCount(resolver.getInstanceCount());
+        model.setPreferredInstanceType(resolver.getPreferredInstanceType());
+        model.setName(resolver.getName());
+        model.setStatus(resolver.getStatus());
+        model.setStatusMessage(resolver.getStatusMessage());
+        model.setCreatorRequestId(resolver.getCreatorRequestId());
+        model.setCreationTime(resolver.getCreationTime());
+        model.setModificationTime(resolver.getModificationTime());
+    }
+
+    //records the observation in the context and maps it when it is news to the model, true when the model was mapped
+    public static boolean refresh(final ResourceModel model, final OutpostResolver resolver, final CallbackContext context) {
+        final boolean changed = context.observe(resolver);
+        if (!changed && reflects(model, resolver)) {
+            return false;
+        }
+        mapFields(model, resolver);
+        return true;
+    }
+
+    public static String fingerprint(final OutpostResolver resolver) {
+        return resolver.getModificationTime() + "|" + resolver.getStatus();
+    }
+
+    //CloudFormation may hand us its own copy of the model, only one we mapped before carries the fingerprint
+    private static boolean reflects(final ResourceModel model, final OutpostResolver resolver) {
+        return resolver.getModificationTime() != null
+                && Objects.equals(model.getId(), resolver.getId())
+                && Objects.equals(model.getModificationTime(), resolver.getModificationTime())
+                && Objects.equals(model.getStatus(), resolver.getStatus());
+    }
+}
@@ -0,0 +1,165 @@
+package software.amazon.route53resolver.outpostresolver;
+
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.route53resolver.outpostresolver.util.EnvironmentUtil;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+//Remembers what Read returned for a resolver for a few seconds, so drift scans that read the same resolvers over
+//and over within one warm container do not repeat GetOutpostResolver and the tag pagination every time. Entries are
+//keyed by account, region and Id, the least recently used one goes once the cache is full, and every mutation
+//handler drops the entry of the resolver it touches. A Read that started before such a mutation must not put its
+//older view back afterwards, so every invalidate moves the key to a new generation and a put carrying the generation
+//from before it is dropped. Off unless READ_CACHE_ENABLED is set.
+public class ResolverSnapshotCache {
+
+    private static final String READ_CACHE_ENABLED = "READ_CACHE_ENABLED";
+    private static final String READ_CACHE_TTL_MILLIS = "READ_CACHE_TTL_MILLIS";
+    private static final String READ_CACHE_MAX_ENTRIES = "READ_CACHE_MAX_ENTRIES";
+    private static final long DEFAULT_TTL_MILLIS = 5_000L;
+    private static final int DEFAULT_MAX_ENTRIES = 500;
+
+    private static final ResolverSnapshotCache SHARED = new ResolverSnapshotCache(
+            EnvironmentUtil.getBoolean(READ_CACHE_ENABLED, false),
+            EnvironmentUtil.getLong(READ_CACHE_TTL_MILLIS, DEFAULT_TTL_MILLIS),
+            EnvironmentUtil.getInt(READ_CACHE_MAX_ENTRIES, DEFAULT_MAX_ENTRIES),
+            System::currentTimeMillis);
+
+    private final boolean enabled;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final LinkedHashMap<String, Snapshot> entries;
+    //generation of every recently invalidated key, values come from one counter that only grows. Keys that fell out
+    //of the map share evictedGeneration, which is raised past theirs, so a Read straddling an eviction loses its put
+    private final LinkedHashMap<String, Long> generations;
+    private long lastGeneration;
+    private long evictedGeneration;
+    private long hits;
+    private long misses;
+
+    private static class Snapshot {
+        private final ResourceModel model;
+        private final long expiresAt;
+
+        private Snapshot(final ResourceModel model, final long expiresAt) {
+            this.model = model;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    public ResolverSnapshotCache(final boolean enabled, final long ttlMillis, final int maxEntries, final LongSupplier clock) {
+        this.enabled = enabled && ttlMillis > 0 && maxEntries > 0;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        //access order turns the map into an LRU list, the eldest entry is the least recently read one
+        this.entries = new LinkedHashMap<String, Snapshot>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Snapshot> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.generations = new LinkedHashMap<String, Long>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Long> eldest) {
+                if (size() > maxEntries) {
+                    evictedGeneration = Math.max(evictedGeneration, eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public static ResolverSnapshotCache shared() {
+        return SHARED;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    //null when there is nothing fresh for this resolver, otherwise a copy the caller is free to change
+    public synchronized ResourceModel get(final ResourceHandlerRequest<ResourceModel> request, final String id) {
+        if (!enabled || id == null) {
+            return null;
+        }
+        final String key = key(request, id);
+        final Snapshot snapshot = entries.get(key);
+        if (snapshot == null || snapshot.expiresAt <= clock.getAsLong()) {
+            if (snapshot != null) {
+                entries.remove(key);
+            }
+            misses++;
+            return null;
+        }
+        hits++;
+        return copy(snapshot.model);
+    }
+
+    //taken before a Read goes to the service and handed back to put with what it read
+    public synchronized long generation(final ResourceHandlerRequest<ResourceModel> request, final String id) {
+        if (!enabled || id == null) {
+            return 0L;
+        }
+        return generations.getOrDefault(key(request, id), evictedGeneration);
+    }
+
+    public synchronized void put(final ResourceHandlerRequest<ResourceModel> request, final ResourceModel model) {
+        put(request, model, generation(request, model.getId()));
+    }
+
+    //dropped when the resolver was invalidated since generation was taken
+    public synchronized void put(final ResourceHandlerRequest<ResourceModel> request, final ResourceModel model, final long generation) {
+        if (enabled && model.getId() != null && generation(request, model.getId()) == generation) {
+            entries.put(key(request, model.getId()), new Snapshot(copy(model), clock.getAsLong() + ttlMillis));
+        }
+    }
+
+    public synchronized void invalidate(final ResourceHandlerRequest<ResourceModel> request, final String id) {
+        if (enabled && id != null) {
+            final String key = key(request, id);
+            entries.remove(key);
+            generations.put(key, ++lastGeneration);
+        }
+    }
+
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static String key(final ResourceHandlerRequest<ResourceModel> request, final String id) {
+        return request.getAwsAccountId() + "/" + request.getRegion() + "/" + id;
+    }
+
+    private static ResourceModel copy(final ResourceModel model) {
+        final Set<Tag> tags = model.getTags() == null ? null : model.getTags().stream()
+                .map(tag -> Tag.builder().key(tag.getKey()).value(tag.getValue()).build())
+                .collect(Collectors.toSet());
+        return ResourceModel.builder()
+                .id(model.getId())
+                .arn(model.getArn())
+                .outpostArn(model.getOutpostArn())
+                .instanceCount(model.getInstanceCount())
+                .preferredInstanceType(model.getPreferredInstanceType())
+                .name(model.getName())
+                .status(model.getStatus())
+                .statusMessage(model.getStatusMessage())
+                .creatorRequestId(model.getCreatorRequestId())
+                .creationTime(model.getCreationTime())
+                .modificationTime(model.getModificationTime())
+                .tags(tags)
+                .build();
+    }
+}
@@ -0,0 +1,43 @@
+package software.amazon.route53resolver.outpostresolver;
+
+import software.amazon.route53resolver.outpostresolver.util.EnvironmentUtil;
+
+//Retry budget shared by every invocation in the container. Each retry spends tokens and each successful call
+//earns one back, so a burst of failures drains the bucket and stops retries from amplifying an outage.
+public class RetryTokenBucket {
+
+    private static final String RETRY_BUDGET_CAPACITY = "RETRY_BUDGET_CAPACITY";
+    private static final int DEFAULT_CAPACITY = 100;
+    private static final int RETRY_COST = 5;
+    private static final int SUCCESS_REFUND = 1;
+
+    private static final RetryTokenBucket SHARED = new RetryTokenBucket(EnvironmentUtil.getInt(RETRY_BUDGET_CAPACITY, DEFAULT_CAPACITY));
+
+    private final int capacity;
+    private int tokens;
+
+    public RetryTokenBucket(final int capacity) {
+        this.capacity = capacity;
+        this.tokens = capacity;
+    }
+
+    public static RetryTokenBucket shared() {
+        return SHARED;
+    }
+
+    public synchronized boolean tryAcquireRetry() {
+        if (tokens < RETRY_COST) {
+            return false;
+        }
+        tokens -= RETRY_COST;
+        return true;
+    }
+
+    public synchronized void recordSuccess() {
+        tokens = Math.min(capacity, tokens + SUCCESS_REFUND);
+    }
+
+    public synchronized int getAvailableTokens() {
+        return tokens;
+    }
+}
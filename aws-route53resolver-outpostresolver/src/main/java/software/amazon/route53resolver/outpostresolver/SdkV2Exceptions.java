@@ -0,0 +1,96 @@
+package software.amazon.route53resolver.outpostresolver;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.SdkClientException;
+import com.amazonaws.services.route53resolver.model.AccessDeniedException;
+import com.amazonaws.services.route53resolver.model.ConflictException;
+import com.amazonaws.services.route53resolver.model.InternalServiceErrorException;
+import com.amazonaws.services.route53resolver.model.InvalidNextTokenException;
+import com.amazonaws.services.route53resolver.model.InvalidParameterException;
+import com.amazonaws.services.route53resolver.model.InvalidPolicyDocumentException;
+import com.amazonaws.services.route53resolver.model.InvalidRequestException;
+import com.amazonaws.services.route53resolver.model.InvalidTagException;
+import com.amazonaws.services.route53resolver.model.LimitExceededException;
+import com.amazonaws.services.route53resolver.model.ResourceExistsException;
+import com.amazonaws.services.route53resolver.model.ResourceInUseException;
+import com.amazonaws.services.route53resolver.model.ResourceNotFoundException;
+import com.amazonaws.services.route53resolver.model.ResourceUnavailableException;
+import com.amazonaws.services.route53resolver.model.ServiceQuotaExceededException;
+import com.amazonaws.services.route53resolver.model.ThrottlingException;
+import com.amazonaws.services.route53resolver.model.UnknownResourceException;
+import com.amazonaws.services.route53resolver.model.ValidationException;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+//Turns failures of the SDK v2 async client into the SDK v1 exceptions the rest of the handler already knows, so
+//the retry classification in ResolverApiInvoker and every handler's catch blocks work unchanged on the async path.
+//Both SDKs model the same service errors under the same names, the v2 class name picks the v1 one.
+final class SdkV2Exceptions {
+
+    private static final String SERVICE_NAME = "AWSRoute53Resolver";
+    private static final Map<String, Function<String, AmazonServiceException>> SERVICE_EXCEPTIONS = new HashMap<>();
+
+    static {
+        SERVICE_EXCEPTIONS.put("AccessDeniedException", AccessDeniedException::new);
+        SERVICE_EXCEPTIONS.put("ConflictException", ConflictException::new);
+        SERVICE_EXCEPTIONS.put("InternalServiceErrorException", InternalServiceErrorException::new);
+        SERVICE_EXCEPTIONS.put("InvalidNextTokenException", InvalidNextTokenException::new);
+        SERVICE_EXCEPTIONS.put("InvalidParameterException", InvalidParameterException::new);
+        SERVICE_EXCEPTIONS.put("InvalidPolicyDocumentException", InvalidPolicyDocumentException::new);
+        SERVICE_EXCEPTIONS.put("InvalidRequestException", InvalidRequestException::new);
+        SERVICE_EXCEPTIONS.put("InvalidTagException", InvalidTagException::new);
+        SERVICE_EXCEPTIONS.put("LimitExceededException", LimitExceededException::new);
+        SERVICE_EXCEPTIONS.put("ResourceExistsException", ResourceExistsException::new);
+        SERVICE_EXCEPTIONS.put("ResourceInUseException", ResourceInUseException::new);
+        SERVICE_EXCEPTIONS.put("ResourceNotFoundException", ResourceNotFoundException::new);
+        SERVICE_EXCEPTIONS.put("ResourceUnavailableException", ResourceUnavailableException::new);
+        SERVICE_EXCEPTIONS.put("ServiceQuotaExceededException", ServiceQuotaExceededException::new);
+        SERVICE_EXCEPTIONS.put("ThrottlingException", ThrottlingException::new);
+        SERVICE_EXCEPTIONS.put("UnknownResourceException", UnknownResourceException::new);
+        SERVICE_EXCEPTIONS.put("ValidationException", ValidationException::new);
+    }
+
+    private SdkV2Exceptions() {
+    }
+
+    static RuntimeException toV1(final Throwable failure) {
+        Throwable cause = failure;
+        //futures wrap the real failure, sometimes more than once
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof AwsServiceException) {
+            return toV1((AwsServiceException) cause);
+        }
+        if (cause instanceof software.amazon.awssdk.core.exception.SdkClientException) {
+            return new SdkClientException(cause.getMessage(), cause);
+        }
+        //already a v1 exception, for example a throttle raised by the invoker itself
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        return new SdkClientException(cause.getMessage(), cause);
+    }
+
+    private static AmazonServiceException toV1(final AwsServiceException e) {
+        final String message = e.awsErrorDetails() == null ? e.getMessage() : e.awsErrorDetails().errorMessage();
+        final Function<String, AmazonServiceException> factory = SERVICE_EXCEPTIONS.get(e.getClass().getSimpleName());
+        final AmazonServiceException converted = factory == null ? new AmazonServiceException(message, e) : factory.apply(message);
+        converted.setServiceName(SERVICE_NAME);
+        converted.setStatusCode(e.statusCode());
+        converted.setRequestId(e.requestId());
+        converted.setErrorType(e.statusCode() >= 500 ? AmazonServiceException.ErrorType.Service : AmazonServiceException.ErrorType.Client);
+        if (e.awsErrorDetails() != null) {
+            converted.setErrorCode(e.awsErrorDetails().errorCode());
+        }
+        if (converted.getCause() == null) {
+            converted.initCause(e);
+        }
+        return converted;
+    }
+}
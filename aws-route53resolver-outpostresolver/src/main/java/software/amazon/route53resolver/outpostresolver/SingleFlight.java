@@ -0,0 +1,117 @@
+package software.amazon.route53resolver.outpostresolver;
+
+import software.amazon.route53resolver.outpostresolver.util.EnvironmentUtil;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+//Lets identical reads that overlap in one JVM share a single call. The first caller for a key makes the call, every
+//caller arriving while it is still running waits for it and gets the same result or the same exception. The key is
+//dropped before the result is handed out, so a caller arriving afterwards always makes a fresh call and nothing is
+//ever served from the past. Callers decide what identical means through the key. Off unless SINGLE_FLIGHT_ENABLED is
+//set to true: handler keys only cover account and region, so two callers with different credentials in the same
+//account would share one call and its authorization outcome.
+public class SingleFlight {
+
+    private static final String SINGLE_FLIGHT_ENABLED = "SINGLE_FLIGHT_ENABLED";
+
+    private static final SingleFlight SHARED = new SingleFlight(EnvironmentUtil.getBoolean(SINGLE_FLIGHT_ENABLED, false));
+
+    private final boolean enabled;
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    public SingleFlight(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public static SingleFlight shared() {
+        return SHARED;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    //onShared runs when this caller waits for somebody else's call instead of making its own
+    public <T> T execute(final String key, final Supplier<T> call, final Runnable onShared) {
+        if (!enabled) {
+            return call.get();
+        }
+        final CompletableFuture<Object> flight = new CompletableFuture<>();
+        final CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            onShared.run();
+            return cast(await(existing));
+        }
+        final T result;
+        try {
+            result = call.get();
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+        inFlight.remove(key, flight);
+        flight.complete(result);
+        return result;
+    }
+
+    public <T> CompletableFuture<T> executeAsync(final String key, final Supplier<CompletableFuture<T>> call, final Runnable onShared) {
+        if (!enabled) {
+            return call.get();
+        }
+        final CompletableFuture<Object> flight = new CompletableFuture<>();
+        final CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            onShared.run();
+            return existing.thenApply(SingleFlight::cast);
+        }
+        final CompletableFuture<T> result;
+        try {
+            result = call.get();
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+        result.whenComplete((value, failure) -> {
+            inFlight.remove(key, flight);
+            if (failure == null) {
+                flight.complete(value);
+            } else {
+                flight.completeExceptionally(failure);
+            }
+        });
+        return result;
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    //rethrows the leader's exception itself, so every caller maps it exactly like its own call would have failed
+    private static Object await(final CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException | CancellationException e) {
+            final Throwable cause = e.getCause() == null ? e : e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    //a key is only ever used for one operation, so the value is always of the type the leader returned
+    @SuppressWarnings("unchecked")
+    private static <T> T cast(final Object value) {
+        return (T) value;
+    }
+}
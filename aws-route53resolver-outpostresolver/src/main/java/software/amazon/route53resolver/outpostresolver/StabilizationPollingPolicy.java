@@ -0,0 +1,8 @@
+package software.amazon.route53resolver.outpostresolver;
+
+//Decides how long CloudFormation should wait before re-invoking a handler that is still stabilizing.
+//Implementations keep whatever state they need in the CallbackContext since every poll is a new invocation.
+public interface StabilizationPollingPolicy {
+
+    int nextDelaySeconds(String status, Integer instanceCount, CallbackContext context);
+}
@@ -8,59 +8,79 @@ import software.amazon.cloudformation.exceptions.CfnInvalidRequestException;
 import software.amazon.cloudformation.exceptions.CfnNotFoundException;
 import software.amazon.cloudformation.exceptions.CfnServiceInternalErrorException;
 import software.amazon.cloudformation.exceptions.CfnThrottlingException;
-import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.route53resolver.outpostresolver.util.EnvironmentUtil;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
 public class TagHelper {
+
+    //a further tag page is only started while at least this much of the invocation is left
+    private static final String TAG_PAGE_RESERVE_MILLIS = "TAG_PAGE_RESERVE_MILLIS";
+    private static final long DEFAULT_TAG_PAGE_RESERVE_MILLIS = 10_000L;
+    private static final long PAGE_RESERVE_MILLIS = EnvironmentUtil.getLong(TAG_PAGE_RESERVE_MILLIS, DEFAULT_TAG_PAGE_RESERVE_MILLIS);
+
     public static Set<com.amazonaws.services.route53resolver.model.Tag> translateTags(Set<Tag> tags) {
-        return tags == null ? null : tags.stream()
-                .map(tag -> new com.amazonaws.services.route53resolver.model.Tag()
-                        .withKey(tag.getKey())
-                        .withValue(tag.getValue()))
-                .collect(Collectors.toSet());
+        return tags == null ? null : new HashSet<>(TagSet.of(tags).toSdkTags());
+    }
+
+    public static Set<com.amazonaws.services.route53resolver.model.Tag> translateTags(Map<String, String> tags) {
+        return new HashSet<>(TagSet.of(tags).toSdkTags());
+    }
+
+    //keyed by tag key, a later tag with the same key wins just like it would on the service side
+    public static Map<String, String> tagsToMap(Set<Tag> tags) {
+        return TagSet.of(tags).asMap();
     }
 
     public static Set<Tag> tagsFromRequest(Map<String, String> requestTags) {
-        return requestTags.entrySet().stream()
-                .map(tag -> Tag.builder()
-                        .key(tag.getKey())
-                        .value(tag.getValue())
-                        .build())
-                .collect(Collectors.toSet());
+        return new HashSet<>(TagSet.of(requestTags).toModelTags());
     }
 
+    //the model's own tags win over stack tags with the same key, see TagSet.resourceTags. Both return a set the
+    //caller owns, as they always did
     public static Set<Tag> getAllResourceTags(ResourceModel model, Map<String, String> requestTags) {
-        Set<Tag> tags = new HashSet<>();
-        if (model.getTags() != null) {
-            tags.addAll(model.getTags());
-        }
-        if (requestTags != null) {
-            tags.addAll(tagsFromRequest(requestTags));
-        }
-        return tags;
+        return new HashSet<>(TagSet.resourceTags(model, requestTags).toModelTags());
     }
 
     public static Set<Tag> listAndTranslateTags(
             final AmazonRoute53Resolver client,
-            final AmazonWebServicesClientProxy proxy,
+            final ResolverApiInvoker invoker,
             final ResourceModel model) {
-        HashSet<com.amazonaws.services.route53resolver.model.Tag> tags = new HashSet<>();
-        String nextToken = null;
+        return listAndTranslateTags(client, invoker, model, null);
+    }
+
+    //With a context the read can stop between pages: when the invocation is running out, or when a later page is
+    //throttled after earlier ones came back, the tags read so far and the token of the next page go into the context
+    //and null is returned, so the handler can hand back IN_PROGRESS and carry on from there next time. Every call
+    //reads at least one page, so a resolver with many tags always gets somewhere. Without a context it reads to the end.
+    public static Set<Tag> listAndTranslateTags(
+            final AmazonRoute53Resolver client,
+            final ResolverApiInvoker invoker,
+            final ResourceModel model,
+            final CallbackContext context) {
+        final boolean resuming = context != null && context.getTagsNextToken() != null;
+        //service tags are mapped as each page arrives, no intermediate set of SDK tags
+        final Set<Tag> tags = resuming && context.getTagsRead() != null ? new HashSet<>(context.getTagsRead()) : new HashSet<>();
+        String nextToken = resuming ? context.getTagsNextToken() : null;
+        int pages = 0;
         do {
+            if (context != null && pages > 0 && !invoker.getTimer().hasTimeFor(PAGE_RESERVE_MILLIS)) {
+                return checkpoint(context, tags, nextToken, false);
+            }
             final ListTagsForResourceRequest listTagsRequest = new ListTagsForResourceRequest()
                     .withResourceArn(model.getArn())
                     .withNextToken(nextToken);
             try {
                 final ListTagsForResourceResult listTagsResult =
-                        proxy.injectCredentialsAndInvoke(listTagsRequest, client::listTagsForResource);
-
-
+                        invoker.invoke(listTagsRequest, client::listTagsForResource);
+                pages++;
                 nextToken = null;
                 if (listTagsResult != null) {
-                    tags.addAll(listTagsResult.getTags());
+                    for (com.amazonaws.services.route53resolver.model.Tag tag : listTagsResult.getTags()) {
+                        tags.add(Tag.builder().key(tag.getKey()).value(tag.getValue()).build());
+                    }
                     nextToken = listTagsResult.getNextToken();
                 }
             } catch (AccessDeniedException e) {
@@ -72,16 +92,45 @@ public class TagHelper {
             } catch (InvalidRequestException | InvalidParameterException | InvalidNextTokenException | ValidationException e) {
                 throw new CfnInvalidRequestException(listTagsRequest.toString(), e);
             } catch (ThrottlingException e) {
+                if (context != null && pages > 0) {
+                    return checkpoint(context, tags, nextToken, true);
+                }
                 throw new CfnThrottlingException(ResourceModel.TYPE_NAME, e);
             }
 
         } while (nextToken != null);
 
-        return tags.stream()
-                .map(tag -> Tag.builder()
-                        .key(tag.getKey())
-                        .value(tag.getValue())
-                        .build())
-                .collect(Collectors.toSet());
+        if (context != null) {
+            context.setTagsNextToken(null);
+            context.setTagsRead(null);
+            context.setThrottledCheckpoints(0);
+        }
+        return tags;
+    }
+
+    //the handler hands the checkpoint back with ResolverApiInvoker.throttleBackoffSeconds(throttledCheckpoints)
+    private static Set<Tag> checkpoint(final CallbackContext context, final Set<Tag> tags, final String nextToken, final boolean throttled) {
+        context.setTagsNextToken(nextToken);
+        context.setTagsRead(tags);
+        context.setThrottledCheckpoints(throttled ? context.getThrottledCheckpoints() + 1 : 0);
+        return null;
+    }
+
+    //async counterpart of listAndTranslateTags: waits for the tags AsyncResolverReader is reading and maps a failure
+    //the same way the blocking loop above does
+    public static Set<Tag> awaitTags(final CompletableFuture<Set<Tag>> pendingTags, final ResourceModel model) {
+        try {
+            return ResolverApiInvoker.join(pendingTags);
+        } catch (AccessDeniedException e) {
+            throw new CfnAccessDeniedException("ListTagsForResource for OutpostResolver", e);
+        } catch (ResourceNotFoundException e) {
+            throw new CfnNotFoundException(new ListTagsForResourceRequest().withResourceArn(model.getArn()).toString(), model.getId());
+        } catch (final InternalServiceErrorException e) {
+            throw new CfnServiceInternalErrorException(ResourceModel.TYPE_NAME, e);
+        } catch (InvalidRequestException | InvalidParameterException | InvalidNextTokenException | ValidationException e) {
+            throw new CfnInvalidRequestException(new ListTagsForResourceRequest().withResourceArn(model.getArn()).toString(), e);
+        } catch (ThrottlingException e) {
+            throw new CfnThrottlingException(ResourceModel.TYPE_NAME, e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,148 @@
+package software.amazon.route53resolver.outpostresolver;
+
+import com.amazonaws.services.route53resolver.AmazonRoute53Resolver;
+import software.amazon.cloudformation.exceptions.CfnThrottlingException;
+import software.amazon.route53resolver.outpostresolver.util.EnvironmentUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+//Reads the tags of several resolvers with bounded parallelism. Models are hydrated in place,
+//so the caller's list keeps the order ListOutpostResolvers returned them in.
+public class TagHydrator {
+
+    private static final String TAG_HYDRATION_CONCURRENCY = "TAG_HYDRATION_CONCURRENCY";
+    private static final int DEFAULT_TAG_HYDRATION_CONCURRENCY = 4;
+
+    //shared by every invocation in the container, threads are daemons so they never hold the JVM open. Never more
+    //threads than the limiter allows calls in flight, a thread beyond that would only wait for a slot. Workers that
+    //find every thread busy queue up, and the calling thread hydrates on its own meanwhile
+    private static final ThreadPoolExecutor EXECUTOR = newExecutor(AdaptiveConcurrencyLimiter.shared().getMaxLimit());
+
+    private final int concurrency;
+
+    public TagHydrator() {
+        this(EnvironmentUtil.getInt(TAG_HYDRATION_CONCURRENCY, DEFAULT_TAG_HYDRATION_CONCURRENCY));
+    }
+
+    public TagHydrator(final int concurrency) {
+        this.concurrency = Math.max(1, concurrency);
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public void hydrate(
+            final List<ResourceModel> models,
+            final AmazonRoute53Resolver client,
+            final ResolverApiInvoker invoker) {
+
+        final AtomicInteger nextIndex = new AtomicInteger();
+        final AtomicBoolean throttled = new AtomicBoolean();
+        final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        final Runnable worker = () -> {
+            int index;
+            //once any call fails or is throttled the remaining models are not started, retrying them
+            //now would only add to the throttling
+            while (failure.get() == null && !throttled.get() && (index = nextIndex.getAndIncrement()) < models.size()) {
+                final ResourceModel model = models.get(index);
+                try {
+                    model.setTags(TagHelper.listAndTranslateTags(client, invoker, model));
+                } catch (CfnThrottlingException e) {
+                    throttled.set(true);
+                    failure.compareAndSet(null, e);
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                }
+            }
+        };
+
+        //the calling thread is one of the workers, so a concurrency of 1 never leaves it
+        final int extraWorkers = Math.min(concurrency, models.size()) - 1;
+        final List<Future<?>> futures = new ArrayList<>(Math.max(0, extraWorkers));
+        for (int i = 0; i < extraWorkers; i++) {
+            futures.add(EXECUTOR.submit(worker));
+        }
+        worker.run();
+        for (Future<?> future : futures) {
+            //still queued, so it never took a model and there is nothing to wait for
+            if (EXECUTOR.remove((Runnable) future)) {
+                continue;
+            }
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while reading OutpostResolver tags", e);
+            } catch (ExecutionException e) {
+                failure.compareAndSet(null, new IllegalStateException(e.getCause()));
+            }
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+    }
+
+    //async variant: the calls are started from this thread, at most concurrency of them outstanding at a time,
+    //and nothing new is started once one of them has failed
+    public void hydrate(final List<ResourceModel> models, final AsyncResolverReader reader) {
+        final Semaphore permits = new Semaphore(concurrency);
+        final List<CompletableFuture<Set<Tag>>> pending = new ArrayList<>(models.size());
+        final AtomicBoolean failed = new AtomicBoolean();
+        for (ResourceModel model : models) {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while reading OutpostResolver tags", e);
+            }
+            if (failed.get()) {
+                permits.release();
+                break;
+            }
+            pending.add(reader.listTags(model.getArn()).whenComplete((tags, failure) -> {
+                if (failure != null) {
+                    failed.set(true);
+                }
+                permits.release();
+            }));
+        }
+        RuntimeException failure = null;
+        for (int i = 0; i < pending.size(); i++) {
+            try {
+                models.get(i).setTags(TagHelper.awaitTags(pending.get(i), models.get(i)));
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static ThreadPoolExecutor newExecutor(final int maxThreads) {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    final Thread thread = new Thread(runnable, "tag-hydration");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        //idle threads go away again, a quiet container keeps none
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
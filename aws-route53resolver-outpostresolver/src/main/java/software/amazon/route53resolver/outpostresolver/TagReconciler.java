@@ -0,0 +1,103 @@
+package software.amazon.route53resolver.outpostresolver;
+
+import com.amazonaws.services.route53resolver.AmazonRoute53Resolver;
+import com.amazonaws.services.route53resolver.model.TagResourceRequest;
+import com.amazonaws.services.route53resolver.model.UntagResourceRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+//Works out which tags changed between two tag sets and applies the difference in as few calls as the API allows.
+public class TagReconciler {
+
+    //CreateOutpostResolver, TagResource and UntagResource each accept at most 200 tags per call
+    public static final int MAX_TAGS_PER_CALL = 200;
+
+    private final int chunkSize;
+
+    public TagReconciler() {
+        this(MAX_TAGS_PER_CALL);
+    }
+
+    public TagReconciler(final int chunkSize) {
+        this.chunkSize = Math.max(1, Math.min(MAX_TAGS_PER_CALL, chunkSize));
+    }
+
+    @lombok.Value
+    public static class TagChanges {
+        //new keys and keys whose value changed, both are applied with TagResource
+        Map<String, String> tagsToAdd;
+        List<String> keysToRemove;
+
+        public boolean isEmpty() {
+            return tagsToAdd.isEmpty() && keysToRemove.isEmpty();
+        }
+    }
+
+    public TagChanges diff(final Set<Tag> previousTags, final Set<Tag> desiredTags) {
+        return diff(TagSet.of(previousTags), TagSet.of(desiredTags));
+    }
+
+    //both sides are sorted by key, so working out the changes is one walk over each without hashing anything
+    public TagChanges diff(final TagSet previousTags, final TagSet desiredTags) {
+        return new TagChanges(desiredTags.changedFrom(previousTags).asMap(), previousTags.keysMissingFrom(desiredTags));
+    }
+
+    public void apply(
+            final ResolverApiInvoker invoker,
+            final AmazonRoute53Resolver client,
+            final String arn,
+            final TagChanges changes) {
+        untagResource(invoker, client, arn, changes.getKeysToRemove());
+        tagResource(invoker, client, arn, changes.getTagsToAdd());
+    }
+
+    public void tagResource(
+            final ResolverApiInvoker invoker,
+            final AmazonRoute53Resolver client,
+            final String arn,
+            final Map<String, String> tags) {
+        tagResource(invoker, client, arn, TagSet.of(tags));
+    }
+
+    public void tagResource(
+            final ResolverApiInvoker invoker,
+            final AmazonRoute53Resolver client,
+            final String arn,
+            final TagSet tags) {
+        for (TagSet chunk : chunk(tags)) {
+            final TagResourceRequest tagRequest = new TagResourceRequest()
+                    .withResourceArn(arn)
+                    .withTags(chunk.toSdkTags());
+            invoker.invoke(tagRequest, client::tagResource);
+        }
+    }
+
+    public void untagResource(
+            final ResolverApiInvoker invoker,
+            final AmazonRoute53Resolver client,
+            final String arn,
+            final List<String> keys) {
+        for (int from = 0; from < keys.size(); from += chunkSize) {
+            final UntagResourceRequest untagRequest = new UntagResourceRequest()
+                    .withResourceArn(arn)
+                    .withTagKeys(keys.subList(from, Math.min(keys.size(), from + chunkSize)));
+            invoker.invoke(untagRequest, client::untagResource);
+        }
+    }
+
+    public List<Map<String, String>> chunk(final Map<String, String> tags) {
+        final List<TagSet> chunks = chunk(TagSet.of(tags));
+        final List<Map<String, String>> maps = new ArrayList<>(chunks.size());
+        for (TagSet chunk : chunks) {
+            maps.add(chunk.asMap());
+        }
+        return maps;
+    }
+
+    public List<TagSet> chunk(final TagSet tags) {
+        return tags.chunks(chunkSize);
+    }
+}
@@ -0,0 +1,375 @@
+package software.amazon.route53resolver.outpostresolver;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+//An immutable set of tags keyed by tag key, held as two arrays sorted by key. Lookups are binary searches, the
+//diff against another set is a single merge walk and the hash is computed once. asMap() and toModelTags() are
+//read-only views over the arrays, so handing the tags on as a map or as the model's Set<Tag> copies nothing.
+//When the same key shows up more than once the last value wins, just like it would on the service side.
+public final class TagSet {
+
+    private static final String[] NONE = new String[0];
+    //natural order, a missing key sorts first
+    private static final Comparator<String> KEY_ORDER = (left, right) ->
+            left == null ? (right == null ? 0 : -1) : right == null ? 1 : left.compareTo(right);
+
+    public static final TagSet EMPTY = new TagSet(NONE, NONE);
+
+    private final String[] keys;
+    private final String[] values;
+    //0 until first asked for, the same trick String uses
+    private int hash;
+
+    private TagSet(final String[] keys, final String[] values) {
+        this.keys = keys;
+        this.values = values;
+    }
+
+    public static TagSet of(final Collection<Tag> tags) {
+        if (tags == null || tags.isEmpty()) {
+            return EMPTY;
+        }
+        if (tags instanceof ModelTags) {
+            return ((ModelTags) tags).owner();
+        }
+        final Tag[] sorted = tags.toArray(new Tag[0]);
+        //stable, so among equal keys the last one stays last
+        Arrays.sort(sorted, (left, right) -> KEY_ORDER.compare(left.getKey(), right.getKey()));
+        final String[] keys = new String[sorted.length];
+        final String[] values = new String[sorted.length];
+        int size = 0;
+        for (Tag tag : sorted) {
+            size = append(keys, values, size, tag.getKey(), tag.getValue());
+        }
+        return trimmed(keys, values, size);
+    }
+
+    public static TagSet of(final Map<String, String> tags) {
+        if (tags == null || tags.isEmpty()) {
+            return EMPTY;
+        }
+        if (tags instanceof MapView) {
+            return ((MapView) tags).owner();
+        }
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        final Map.Entry<String, String>[] sorted = tags.entrySet().toArray(new Map.Entry[0]);
+        Arrays.sort(sorted, (left, right) -> KEY_ORDER.compare(left.getKey(), right.getKey()));
+        final String[] keys = new String[sorted.length];
+        final String[] values = new String[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            keys[i] = sorted[i].getKey();
+            values[i] = sorted[i].getValue();
+        }
+        return new TagSet(keys, values);
+    }
+
+    public static TagSet ofSdkTags(final Collection<com.amazonaws.services.route53resolver.model.Tag> tags) {
+        if (tags == null || tags.isEmpty()) {
+            return EMPTY;
+        }
+        final com.amazonaws.services.route53resolver.model.Tag[] sorted =
+                tags.toArray(new com.amazonaws.services.route53resolver.model.Tag[0]);
+        Arrays.sort(sorted, (left, right) -> KEY_ORDER.compare(left.getKey(), right.getKey()));
+        final String[] keys = new String[sorted.length];
+        final String[] values = new String[sorted.length];
+        int size = 0;
+        for (com.amazonaws.services.route53resolver.model.Tag tag : sorted) {
+            size = append(keys, values, size, tag.getKey(), tag.getValue());
+        }
+        return trimmed(keys, values, size);
+    }
+
+    //the tags a resolver should carry: the ones on the model, plus the stack level ones CloudFormation passes along.
+    //A key set on the resource itself is more specific than the stack wide one, so the model value wins
+    public static TagSet resourceTags(final ResourceModel model, final Map<String, String> requestTags) {
+        return of(model == null ? null : model.getTags()).union(of(requestTags));
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    public boolean isEmpty() {
+        return keys.length == 0;
+    }
+
+    public boolean containsKey(final String key) {
+        return indexOf(key) >= 0;
+    }
+
+    public String get(final String key) {
+        final int index = indexOf(key);
+        return index < 0 ? null : values[index];
+    }
+
+    //every tag of this set plus those of other whose key this set does not have
+    public TagSet union(final TagSet other) {
+        if (other.isEmpty()) {
+            return this;
+        }
+        if (isEmpty()) {
+            return other;
+        }
+        final String[] mergedKeys = new String[keys.length + other.keys.length];
+        final String[] mergedValues = new String[mergedKeys.length];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < keys.length || j < other.keys.length) {
+            final int order = i == keys.length ? 1 : j == other.keys.length ? -1 : KEY_ORDER.compare(keys[i], other.keys[j]);
+            if (order <= 0) {
+                mergedKeys[size] = keys[i];
+                mergedValues[size++] = values[i++];
+                if (order == 0) {
+                    j++;
+                }
+            } else {
+                mergedKeys[size] = other.keys[j];
+                mergedValues[size++] = other.values[j++];
+            }
+        }
+        return trimmed(mergedKeys, mergedValues, size);
+    }
+
+    //the tags of this set that previous does not have or has with another value, what TagResource has to send
+    public TagSet changedFrom(final TagSet previous) {
+        final String[] changedKeys = new String[keys.length];
+        final String[] changedValues = new String[keys.length];
+        int size = 0;
+        int j = 0;
+        for (int i = 0; i < keys.length; i++) {
+            while (j < previous.keys.length && KEY_ORDER.compare(previous.keys[j], keys[i]) < 0) {
+                j++;
+            }
+            if (j == previous.keys.length || !Objects.equals(previous.keys[j], keys[i]) || !Objects.equals(previous.values[j], values[i])) {
+                changedKeys[size] = keys[i];
+                changedValues[size++] = values[i];
+            }
+        }
+        return size == keys.length ? this : trimmed(changedKeys, changedValues, size);
+    }
+
+    //the keys of this set that other does not have, what UntagResource has to send
+    public List<String> keysMissingFrom(final TagSet other) {
+        final List<String> missing = new ArrayList<>();
+        int j = 0;
+        for (String key : keys) {
+            while (j < other.keys.length && KEY_ORDER.compare(other.keys[j], key) < 0) {
+                j++;
+            }
+            if (j == other.keys.length || !Objects.equals(other.keys[j], key)) {
+                missing.add(key);
+            }
+        }
+        return missing;
+    }
+
+    //consecutive slices of at most size tags, each one a set of its own
+    public List<TagSet> chunks(final int size) {
+        if (isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (keys.length <= size) {
+            return Collections.singletonList(this);
+        }
+        final List<TagSet> chunks = new ArrayList<>((keys.length + size - 1) / size);
+        for (int from = 0; from < keys.length; from += size) {
+            final int to = Math.min(keys.length, from + size);
+            chunks.add(new TagSet(Arrays.copyOfRange(keys, from, to), Arrays.copyOfRange(values, from, to)));
+        }
+        return chunks;
+    }
+
+    public List<com.amazonaws.services.route53resolver.model.Tag> toSdkTags() {
+        final List<com.amazonaws.services.route53resolver.model.Tag> tags = new ArrayList<>(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            tags.add(new com.amazonaws.services.route53resolver.model.Tag().withKey(keys[i]).withValue(values[i]));
+        }
+        return tags;
+    }
+
+    //a read-only view, copy it before handing it to anything that may add or remove tags such as ResourceModel.setTags
+    public Set<Tag> toModelTags() {
+        return new ModelTags();
+    }
+
+    public Map<String, String> asMap() {
+        return new MapView();
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof TagSet)) {
+            return false;
+        }
+        final TagSet that = (TagSet) other;
+        return keys.length == that.keys.length
+                && hashCode() == that.hashCode()
+                && Arrays.equals(keys, that.keys)
+                && Arrays.equals(values, that.values);
+    }
+
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0 && keys.length > 0) {
+            h = 31 * Arrays.hashCode(keys) + Arrays.hashCode(values);
+            hash = h;
+        }
+        return h;
+    }
+
+    //keys only, tag values do not belong in logs
+    @Override
+    public String toString() {
+        return "TagSet" + Arrays.toString(keys);
+    }
+
+    private int indexOf(final String key) {
+        int low = 0;
+        int high = keys.length - 1;
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            final int order = KEY_ORDER.compare(keys[middle], key);
+            if (order < 0) {
+                low = middle + 1;
+            } else if (order > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    //adds the tag to the sorted arrays, replacing the previous value when the key repeats
+    private static int append(final String[] keys, final String[] values, final int size, final String key, final String value) {
+        if (size > 0 && Objects.equals(keys[size - 1], key)) {
+            values[size - 1] = value;
+            return size;
+        }
+        keys[size] = key;
+        values[size] = value;
+        return size + 1;
+    }
+
+    private static TagSet trimmed(final String[] keys, final String[] values, final int size) {
+        if (size == 0) {
+            return EMPTY;
+        }
+        return size == keys.length ? new TagSet(keys, values)
+                : new TagSet(Arrays.copyOf(keys, size), Arrays.copyOf(values, size));
+    }
+
+    //the model's Set<Tag>, membership is a binary search and Tag objects are only made while iterating
+    private final class ModelTags extends AbstractSet<Tag> {
+
+        private TagSet owner() {
+            return TagSet.this;
+        }
+
+        @Override
+        public int size() {
+            return keys.length;
+        }
+
+        @Override
+        public boolean contains(final Object candidate) {
+            if (!(candidate instanceof Tag)) {
+                return false;
+            }
+            final Tag tag = (Tag) candidate;
+            final int index = indexOf(tag.getKey());
+            return index >= 0 && Objects.equals(values[index], tag.getValue());
+        }
+
+        @Override
+        public Iterator<Tag> iterator() {
+            return new Iterator<Tag>() {
+                private int next;
+
+                @Override
+                public boolean hasNext() {
+                    return next < keys.length;
+                }
+
+                @Override
+                public Tag next() {
+                    if (next >= keys.length) {
+                        throw new NoSuchElementException();
+                    }
+                    final int index = next++;
+                    return Tag.builder().key(keys[index]).value(values[index]).build();
+                }
+            };
+        }
+    }
+
+    private final class MapView extends AbstractMap<String, String> {
+
+        private TagSet owner() {
+            return TagSet.this;
+        }
+
+        @Override
+        public int size() {
+            return keys.length;
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return key instanceof String && indexOf((String) key) >= 0;
+        }
+
+        @Override
+        public String get(final Object key) {
+            return key instanceof String ? TagSet.this.get((String) key) : null;
+        }
+
+        @Override
+        public Set<Map.Entry<String, String>> entrySet() {
+            return new AbstractSet<Map.Entry<String, String>>() {
+                @Override
+                public int size() {
+                    return keys.length;
+                }
+
+                @Override
+                public Iterator<Map.Entry<String, String>> iterator() {
+                    return new Iterator<Map.Entry<String, String>>() {
+                        private int next;
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < keys.length;
+                        }
+
+                        @Override
+                        public Map.Entry<String, String> next() {
+                            if (next >= keys.length) {
+                                throw new NoSuchElementException();
+                            }
+                            final int index = next++;
+                            return new AbstractMap.SimpleImmutableEntry<>(keys[index], values[index]);
+                        }
+                    };
+                }
+            };
+        }
+    }
+}
@@ -2,17 +2,33 @@ package software.amazon.route53resolver.outpostresolver;
 
 import com.amazonaws.services.route53resolver.AmazonRoute53Resolver;
 import com.amazonaws.services.route53resolver.model.*;
+import org.json.JSONObject;
 import software.amazon.cloudformation.exceptions.*;
 import software.amazon.cloudformation.exceptions.ResourceNotFoundException;
 import software.amazon.cloudformation.proxy.*;
 import software.amazon.route53resolver.outpostresolver.util.OutpostResolverUtil;
 
-import java.util.ArrayList;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 public class UpdateHandler extends BaseHandler<CallbackContext> {
 
+    private final StabilizationPollingPolicy pollingPolicy;
+    private final InvocationPoller poller;
+    private final TagReconciler tagReconciler = new TagReconciler();
+
+    public UpdateHandler() {
+        this(new ExponentialBackoffPollingPolicy());
+    }
+
+    public UpdateHandler(final StabilizationPollingPolicy pollingPolicy) {
+        this(pollingPolicy, InvocationPoller.fromEnvironment());
+    }
+
+    public UpdateHandler(final StabilizationPollingPolicy pollingPolicy, final InvocationPoller poller) {
+        this.pollingPolicy = pollingPolicy;
+        this.poller = poller;
+    }
+
     @Override
     public ProgressEvent<ResourceModel, CallbackContext> handleRequest(
             final AmazonWebServicesClientProxy proxy,
@@ -20,9 +36,8 @@ public class UpdateHandler extends BaseHandler<CallbackContext> {
             final CallbackContext callbackContext,
             final Logger logger) {
 
-        ClientBuilder builder = new ClientBuilder();
         // This Lambda will continually be re-invoked with the current state of the stack, finally finishes when state stabilizes.
-        return doHandleRequest(proxy, request, callbackContext, logger, builder.getClient());
+        return doHandleRequest(proxy, request, callbackContext, logger, ClientBuilder.getClient());
     }
 
     public ProgressEvent<ResourceModel, CallbackContext> doHandleRequest(
@@ -32,11 +47,32 @@ public class UpdateHandler extends BaseHandler<CallbackContext> {
             final Logger logger,
             final AmazonRoute53Resolver client){
 
+        final InvocationTimer timer = InvocationTimer.start();
+        final ApiMetrics metrics = new ApiMetrics("Update");
+        final ResolverApiInvoker invoker = new ResolverApiInvoker(proxy, logger, timer, metrics).forCaller(request);
+        try {
+            return handle(timer, invoker, request, callbackContext, new HandlerLogger(logger, "Update"), client);
+        } finally {
+            //a Read snapshot taken before or during this invocation may no longer match the resolver
+            ResolverSnapshotCache.shared().invalidate(request, request.getDesiredResourceState().getId());
+            //one set of EMF lines per invocation, including the ones that end in an exception
+            metrics.flush(logger);
+        }
+    }
+
+    private ProgressEvent<ResourceModel, CallbackContext> handle(
+            final InvocationTimer timer,
+            final ResolverApiInvoker invoker,
+            final ResourceHandlerRequest<ResourceModel> request,
+            final CallbackContext callbackContext,
+            final HandlerLogger log,
+            final AmazonRoute53Resolver client) {
+
         final ResourceModel model = request.getDesiredResourceState();
         final ResourceModel prevModel = request.getPreviousResourceState();
 
         final CallbackContext context = callbackContext == null ? CallbackContext.builder().build() : callbackContext;
-        logger.log("UpdateHandler request: " + request);
+        log.request(request, context.isMutationStarted());
 
         if (!context.isMutationStarted()) {
             context.setOutpostResolverId(prevModel.getId());
@@ -51,7 +87,9 @@ public class UpdateHandler extends BaseHandler<CallbackContext> {
 
             //FrontierAPI does not support updating of OutpostArn, so we throw CfnInvalidRequestException if the request has a different OutpostArn
             if (!request.getDesiredResourceState().getOutpostArn().equals(request.getPreviousResourceState().getOutpostArn())){
-                logger.log(request.getDesiredResourceState().getOutpostArn() + ", OutpostArn is not updatable");
+                log.warn("OutpostArnNotUpdatable", () -> new JSONObject()
+                        .put("desiredOutpostArn", request.getDesiredResourceState().getOutpostArn())
+                        .put("previousOutpostArn", request.getPreviousResourceState().getOutpostArn()));
                 throw new CfnInvalidRequestException(request.getDesiredResourceState().getOutpostArn() + ", OutpostArn is not updatable");
             }
 
@@ -64,7 +102,7 @@ public class UpdateHandler extends BaseHandler<CallbackContext> {
             context.setMutationStabilized(false);
             try {
                 final UpdateOutpostResolverResult updateResult =
-                        proxy.injectCredentialsAndInvoke(updateRequest, client::updateOutpostResolver);
+                        invoker.invoke(updateRequest, client::updateOutpostResolver);
                 if(updateResult == null || updateResult.getOutpostResolver() == null) {
                     context.setMutationStabilized(true);
                     return ProgressEvent.<ResourceModel, CallbackContext>builder()
@@ -73,16 +111,11 @@ public class UpdateHandler extends BaseHandler<CallbackContext> {
                             .build();
                 } else {
                     context.setOutpostResolverId(updateResult.getOutpostResolver().getId());
+                    context.observe(updateResult.getOutpostResolver());
                     OutpostResolverUtil.outpostResolverToModelMapper(model, updateResult.getOutpostResolver(), null, null);
                 }
 
-                logger.log("...........................................");
-                logger.log("the OutpostResolver resource is being updated...");
-                logger.log("the OutpostResolver Name is " + model.getName());
-                logger.log("the OutpostResolver Id is " + model.getId());
-                logger.log("current status is " + model.getStatus());
-                logger.log("pending stabilization...");
-                logger.log("...........................................");
+                log.info("MutationStarted", () -> HandlerLogger.describe(model));
 
             } catch (InvalidRequestException | InvalidParameterException | ValidationException e) {
                 throw new CfnInvalidRequestException(updateRequest.toString(), e);
@@ -98,21 +131,44 @@ public class UpdateHandler extends BaseHandler<CallbackContext> {
                 throw new  CfnThrottlingException(ResourceModel.TYPE_NAME, e);
             }
 
-            return ProgressEvent.<ResourceModel, CallbackContext>builder()
+            return poller.pollWhileTimeRemains(timer, ProgressEvent.<ResourceModel, CallbackContext>builder()
                     .callbackContext(context)
                     .resourceModel(model)
                     .status(OperationStatus.IN_PROGRESS)
-                    .build();
+                    .callbackDelaySeconds(pollingPolicy.nextDelaySeconds(model.getStatus(), model.getInstanceCount(), context))
+                    .build(), () -> stabilize(invoker, request, context, log, client, model));
         }
 
-        if (!context.isMutationStabilized()) {
+        return poller.pollWhileTimeRemains(timer, stabilize(invoker, request, context, log, client, model),
+                () -> stabilize(invoker, request, context, log, client, model));
+    }
+
+    private ProgressEvent<ResourceModel, CallbackContext> stabilize(
+            final ResolverApiInvoker invoker,
+            final ResourceHandlerRequest<ResourceModel> request,
+            final CallbackContext context,
+            final HandlerLogger log,
+            final AmazonRoute53Resolver client,
+            final ResourceModel model) {
+
+        //a tag read that did not finish last time is picked up again together with a fresh look at the resolver
+        if (!context.isMutationStabilized() || context.getTagsNextToken() != null) {
             final GetOutpostResolverRequest readRequest = new GetOutpostResolverRequest()
                     .withId(context.getOutpostResolverId());
 
             final GetOutpostResolverResult getResult =
-                    proxy.injectCredentialsAndInvoke(readRequest, client::getOutpostResolver);
+                    invoker.invoke(readRequest, client::getOutpostResolver);
 
+            if (context.isMutationStabilized() && (getResult == null || getResult.getOutpostResolver() == null)) {
+                //the resolver went away between the invocations of an unfinished tag read
+                return ProgressEvent.<ResourceModel, CallbackContext>builder()
+                        .resourceModel(model)
+                        .status(OperationStatus.FAILED)
+                        .errorCode(HandlerErrorCode.NotFound)
+                        .build();
+            }
             if (getResult != null && getResult.getOutpostResolver()!=null) {
+                context.observe(getResult.getOutpostResolver());
 
 
                 //Possible end state of OutpostResolver include OPERATIONAL and ACTION_NEEDED,
@@ -121,13 +177,24 @@ public class UpdateHandler extends BaseHandler<CallbackContext> {
                 context.setOutpostResolverId(model.getId());
             }
             if(context.isMutationStabilized()) {
-                logger.log(String.format("%s [%s] is stabilized with status %s",
-                        ResourceModel.TYPE_NAME, model.getId(), model.getStatus()));
-                if (getResult.getOutpostResolver().getStatus().equals(OutpostResolverStatus.OPERATIONAL.toString())){
+                log.info("Stabilized", () -> new JSONObject().put("id", model.getId()).put("status", model.getStatus()));
+                //a pending tag read means the tags were already applied before it started
+                if (getResult.getOutpostResolver().getStatus().equals(OutpostResolverStatus.OPERATIONAL.toString())
+                        && context.getTagsNextToken() == null){
                     //we update tags after OPERATIONAL to prevent having to roll back as the CFN rollback does not roll back Tagris and it can cause mismatch of CFN template tags with actual Tagris tags
-                    tagResource(request,proxy,client, request.getDesiredResourceState(), request.getPreviousResourceState());
+                    tagResource(request, invoker, client, context, request.getDesiredResourceState(), request.getPreviousResourceState());
+                }
+                OutpostResolverUtil.outpostResolverToModelMapper(model, getResult.getOutpostResolver(), null);
+                final Set<Tag> tags = TagHelper.listAndTranslateTags(client, invoker, model, context);
+                if (tags == null) {
+                    return ProgressEvent.<ResourceModel, CallbackContext>builder()
+                            .callbackContext(context)
+                            .status(OperationStatus.IN_PROGRESS)
+                            .callbackDelaySeconds(ResolverApiInvoker.throttleBackoffSeconds(context.getThrottledCheckpoints()))
+                            .resourceModel(model)
+                            .build();
                 }
-                OutpostResolverUtil.outpostResolverToModelMapper(model, getResult.getOutpostResolver(), proxy, client);
+                model.setTags(tags);
                 return ProgressEvent.<ResourceModel, CallbackContext>builder()
                         .callbackContext(context)
                         .message(String.format("OutpostResolver update stabilized with the status of: %s", model.getStatus()))
@@ -139,46 +206,41 @@ public class UpdateHandler extends BaseHandler<CallbackContext> {
         return ProgressEvent.<ResourceModel, CallbackContext>builder()
                 .callbackContext(context)
                 .status(OperationStatus.IN_PROGRESS)
+                .callbackDelaySeconds(pollingPolicy.nextDelaySeconds(model.getStatus(), model.getInstanceCount(), context))
                 .resourceModel(model)
                 .build();
     }
 
     public void tagResource(final ResourceHandlerRequest<ResourceModel> request, final AmazonWebServicesClientProxy proxy, final AmazonRoute53Resolver client, ResourceModel model, ResourceModel prevModel) {
-        Set<Tag> tagsToRemove = TagHelper.getAllResourceTags(prevModel, request.getPreviousResourceTags());
-        Set<Tag> tagsToAdd = TagHelper.getAllResourceTags(model, request.getDesiredResourceTags());
-        for (Tag oldTag : new ArrayList<>(tagsToRemove)) {
-            for (Tag newTag : new ArrayList<>(tagsToAdd)) {
-                if (oldTag.getKey().equals(newTag.getKey())) {
-                    if (oldTag.getValue().equals(newTag.getValue())) {
-                        tagsToAdd.remove(newTag);
-                    }
-                    tagsToRemove.remove(oldTag);
-                    break;
-                }
-            }
-        }
-        final GetOutpostResolverRequest readRequest = new GetOutpostResolverRequest()
-                .withId(model.getId());
-        String arn = proxy.injectCredentialsAndInvoke(readRequest, client::getOutpostResolver)
-                .getOutpostResolver().getArn();
-        TagResourceRequest tagRequest = null;
-        UntagResourceRequest untagRequest = null;
-        if (tagsToRemove.size() > 0) {
-            untagRequest = new UntagResourceRequest()
-                    .withResourceArn(arn)
-                    .withTagKeys(tagsToRemove.stream().map(Tag::getKey).collect(Collectors.toList()));
+        tagResource(request, new ResolverApiInvoker(proxy), client, null, model, prevModel);
+    }
+
+    public void tagResource(final ResourceHandlerRequest<ResourceModel> request, final ResolverApiInvoker invoker, final AmazonRoute53Resolver client,
+                            final CallbackContext context, ResourceModel model, ResourceModel prevModel) {
+        final TagReconciler.TagChanges changes = tagReconciler.diff(
+                TagSet.resourceTags(prevModel, request.getPreviousResourceTags()),
+                TagSet.resourceTags(model, request.getDesiredResourceTags()));
+        if (changes.isEmpty()) {
+            return;
         }
-        if (tagsToAdd.size() > 0) {
-            tagRequest = new TagResourceRequest()
-                    .withResourceArn(arn)
-                    .withTags(TagHelper.translateTags(tagsToAdd));
+        tagReconciler.apply(invoker, client, resolveArn(invoker, client, context, model, prevModel), changes);
+    }
+
+    //the ARN never changes, so the one we already observed is used before falling back to reading the resolver
+    private String resolveArn(final ResolverApiInvoker invoker, final AmazonRoute53Resolver client,
+                              final CallbackContext context, final ResourceModel model, final ResourceModel prevModel) {
+        if (context != null && context.getOutpostResolverArn() != null) {
+            return context.getOutpostResolverArn();
         }
-        if (untagRequest != null) {
-            proxy.injectCredentialsAndInvoke(untagRequest, client::untagResource);
+        if (model.getArn() != null) {
+            return model.getArn();
         }
-        if (tagRequest != null) {
-            proxy.injectCredentialsAndInvoke(tagRequest, client::tagResource);
+        if (prevModel != null && prevModel.getArn() != null) {
+            return prevModel.getArn();
         }
-
+        final GetOutpostResolverRequest readRequest = new GetOutpostResolverRequest()
+                .withId(model.getId());
+        return invoker.invoke(readRequest, client::getOutpostResolver)
+                .getOutpostResolver().getArn();
     }
 }
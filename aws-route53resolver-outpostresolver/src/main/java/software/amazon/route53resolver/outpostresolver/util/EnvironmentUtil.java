@@ -0,0 +1,35 @@
+package software.amazon.route53resolver.outpostresolver.util;
+
+import com.amazonaws.util.StringUtils;
+
+//Lambda will have an environment variable for AWS_REGION and any tuning values set on the function
+//https://docs.aws.amazon.com/lambda/latest/dg/configuration-envvars.html
+public class EnvironmentUtil {
+
+    public static String getString(final String environmentVariable, final String defaultValue) {
+        final String value = System.getenv(environmentVariable);
+        return StringUtils.isNullOrEmpty(value) ? defaultValue : value.trim();
+    }
+
+    public static int getInt(final String environmentVariable, final int defaultValue) {
+        return (int) getLong(environmentVariable, defaultValue);
+    }
+
+    public static long getLong(final String environmentVariable, final long defaultValue) {
+        final String value = getString(environmentVariable, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            //a malformed tuning value should never fail the handler, fall back to the default
+            return defaultValue;
+        }
+    }
+
+    public static boolean getBoolean(final String environmentVariable, final boolean defaultValue) {
+        final String value = getString(environmentVariable, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+}
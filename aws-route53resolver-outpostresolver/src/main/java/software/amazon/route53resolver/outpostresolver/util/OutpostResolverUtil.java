@@ -2,32 +2,33 @@ package software.amazon.route53resolver.outpostresolver.util;
 
 import com.amazonaws.services.route53resolver.AmazonRoute53Resolver;
 import com.amazonaws.services.route53resolver.model.OutpostResolver;
-import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.route53resolver.outpostresolver.ResolverApiInvoker;
+import software.amazon.route53resolver.outpostresolver.ResolverModelMapper;
 import software.amazon.route53resolver.outpostresolver.ResourceModel;
+import software.amazon.route53resolver.outpostresolver.Tag;
 import software.amazon.route53resolver.outpostresolver.TagHelper;
 
+import java.util.Set;
+
 public class OutpostResolverUtil {
 
 
 
-    public static void outpostResolverToModelMapper(ResourceModel model, OutpostResolver or, AmazonWebServicesClientProxy proxy,
+    public static void outpostResolverToModelMapper(ResourceModel model, OutpostResolver or, ResolverApiInvoker invoker,
                                                     AmazonRoute53Resolver client) {
-        model.setId(or.getId());
-        model.setArn(or.getArn());
-        model.setOutpostArn(or.getOutpostArn());
-        model.setInstanceCount(or.getInstanceCount());
-        model.setPreferredInstanceType(or.getPreferredInstanceType());
-        model.setName(or.getName());
-        model.setStatus(or.getStatus());
-        model.setStatusMessage(or.getStatusMessage());
-        model.setCreatorRequestId(or.getCreatorRequestId());
-        model.setCreationTime(or.getCreationTime());
-        model.setModificationTime(or.getModificationTime());
+        ResolverModelMapper.mapFields(model, or);
         //we pass in null when we do not want to translate tags
         //for example when deleting its possible the Outpost Resolver is deleted and we are no longer allowed to call listTagsForResource
         //and for updates we do not want to update the desiredState
-        if (proxy !=null && client != null) {
-            model.setTags(TagHelper.listAndTranslateTags(client, proxy, model));
+        if (invoker !=null && client != null) {
+            model.setTags(TagHelper.listAndTranslateTags(client, invoker, model));
         }
     }
+
+    //maps the resolver using tags the caller already knows, for example the ones just sent with the create request,
+    //so polls that cannot have changed the tags do not list them again
+    public static void outpostResolverToModelMapper(ResourceModel model, OutpostResolver or, Set<Tag> knownTags) {
+        ResolverModelMapper.mapFields(model, or);
+        model.setTags(knownTags);
+    }
 }
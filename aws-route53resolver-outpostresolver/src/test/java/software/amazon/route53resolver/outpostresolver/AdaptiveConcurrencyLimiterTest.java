@@ -0,0 +1,72 @@
+package software.amazon.route53resolver.outpostresolver;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    private AtomicLong clock;
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    public void setup() {
+        clock = new AtomicLong(1_000_000L);
+        limiter = new AdaptiveConcurrencyLimiter(4, 1, 8, clock::get);
+    }
+
+    @Test
+    public void testAcquireStopsAtLimit() throws InterruptedException {
+        for (int i = 0; i < 4; i++) {
+            assertThat(limiter.acquire(0L)).isTrue();
+        }
+        assertThat(limiter.acquire(0L)).isFalse();
+        assertThat(limiter.getInFlight()).isEqualTo(4);
+
+        limiter.onFailure();
+        assertThat(limiter.acquire(0L)).isTrue();
+        assertThat(limiter.getQueueDepth()).isZero();
+    }
+
+    @Test
+    public void testSuccessesGrowTheLimit() throws InterruptedException {
+        for (int i = 0; i < 40; i++) {
+            limiter.acquire(0L);
+            limiter.onSuccess(100L);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(8);
+    }
+
+    @Test
+    public void testThrottlingHalvesTheLimitOncePerCooldown() throws InterruptedException {
+        limiter.acquire(0L);
+        limiter.acquire(0L);
+        limiter.onThrottled();
+        limiter.onThrottled();
+        assertThat(limiter.getLimit()).isEqualTo(2);
+
+        clock.addAndGet(1_000L);
+        limiter.acquire(0L);
+        limiter.onThrottled();
+        assertThat(limiter.getLimit()).isEqualTo(1);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    public void testLatencySpikeShrinksTheLimit() throws InterruptedException {
+        for (int i = 0; i < 10; i++) {
+            limiter.acquire(0L);
+            limiter.onSuccess(100L);
+        }
+        final int before = limiter.getLimit();
+
+        limiter.acquire(0L);
+        limiter.onSuccess(1_000L);
+
+        assertThat(limiter.getLimit()).isLessThan(before);
+    }
+}
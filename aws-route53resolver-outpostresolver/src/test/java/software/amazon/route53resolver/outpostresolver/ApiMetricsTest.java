@@ -0,0 +1,74 @@
+package software.amazon.route53resolver.outpostresolver;
+
+import com.amazonaws.services.route53resolver.model.ThrottlingException;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import software.amazon.cloudformation.proxy.Logger;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class ApiMetricsTest {
+
+    @Test
+    public void testOperationDocument() {
+        final ApiMetrics metrics = new ApiMetrics("Create", true, "Test");
+        metrics.recordCall("GetOutpostResolver", 20L, null);
+        metrics.recordCall("GetOutpostResolver", 20L, null);
+        metrics.recordCall("GetOutpostResolver", 35L, new ThrottlingException("slow down"));
+        metrics.recordRetry("GetOutpostResolver");
+
+        final List<String> documents = metrics.toEmfDocuments();
+
+        assertThat(documents).hasSize(2);
+        final JSONObject operation = new JSONObject(documents.get(0));
+        assertThat(operation.getString("Action")).isEqualTo("Create");
+        assertThat(operation.getString("Operation")).isEqualTo("GetOutpostResolver");
+        assertThat(operation.getInt("Calls")).isEqualTo(3);
+        assertThat(operation.getInt("Retries")).isEqualTo(1);
+        assertThat(operation.getInt("Errors")).isEqualTo(1);
+        assertThat(operation.getInt("ThrottlingException")).isEqualTo(1);
+        assertThat(operation.getJSONObject("Latency").getJSONArray("Values").toList()).containsExactly(20, 35);
+        assertThat(operation.getJSONObject("Latency").getJSONArray("Counts").toList()).containsExactly(2, 1);
+        assertThat(operation.getJSONObject("_aws").getJSONArray("CloudWatchMetrics").getJSONObject(0).getString("Namespace"))
+                .isEqualTo("Test");
+
+        final JSONObject invocation = new JSONObject(documents.get(1));
+        assertThat(invocation.getLong("ApiLatency")).isEqualTo(75L);
+        assertThat(invocation.has("InvocationDuration")).isTrue();
+    }
+
+    @Test
+    public void testLargeHistogramsAreSplit() {
+        final ApiMetrics metrics = new ApiMetrics("List", true, "Test");
+        for (long latency = 0; latency < 150; latency++) {
+            metrics.recordCall("ListTagsForResource", latency, null);
+        }
+
+        final List<String> documents = metrics.toEmfDocuments();
+
+        assertThat(documents).hasSize(3);
+        assertThat(new JSONObject(documents.get(0)).getInt("Calls")).isEqualTo(150);
+        assertThat(new JSONObject(documents.get(1)).has("Calls")).isFalse();
+        assertThat(new JSONObject(documents.get(1)).getJSONObject("Latency").getJSONArray("Values").length()).isEqualTo(50);
+    }
+
+    @Test
+    public void testFlush() {
+        final Logger logger = mock(Logger.class);
+        final ApiMetrics metrics = new ApiMetrics("Read", true, "Test");
+        metrics.recordCall("GetOutpostResolver", 10L, null);
+        metrics.flush(logger);
+        verify(logger, times(2)).log(anyString());
+
+        final Logger disabledLogger = mock(Logger.class);
+        new ApiMetrics("Read", false, "Test").flush(disabledLogger);
+        verify(disabledLogger, never()).log(anyString());
+    }
+}
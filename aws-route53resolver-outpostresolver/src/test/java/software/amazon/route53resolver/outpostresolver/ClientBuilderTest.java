@@ -0,0 +1,36 @@
+package software.amazon.route53resolver.outpostresolver;
+
+import com.amazonaws.retry.PredefinedRetryPolicies;
+import com.amazonaws.services.route53resolver.AmazonRoute53Resolver;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ClientBuilderTest {
+
+    @Test
+    public void testClientIsSharedAcrossCalls() {
+        final long built = ClientBuilder.getPoolStatistics().getClientsBuilt();
+
+        final AmazonRoute53Resolver first = ClientBuilder.getClient("eu-west-3");
+        final AmazonRoute53Resolver second = ClientBuilder.getClient("eu-west-3");
+
+        assertThat(second).isSameAs(first);
+        assertThat(ClientBuilder.getPoolStatistics().getClientsBuilt()).isEqualTo(built + 1);
+    }
+
+    @Test
+    public void testClientPerRegion() {
+        final AmazonRoute53Resolver west = ClientBuilder.getClient("ap-southeast-3");
+        final AmazonRoute53Resolver east = ClientBuilder.getClient("ap-northeast-3");
+
+        assertThat(west).isNotSameAs(east);
+    }
+
+    @Test
+    public void testSdkRetriesAreOff() {
+        assertThat(ClientBuilder.clientConfiguration().getRetryPolicy()).isSameAs(PredefinedRetryPolicies.NO_RETRY_POLICY);
+        assertThat(ClientBuilder.asyncOverrideConfiguration().retryPolicy())
+                .hasValueSatisfying(policy -> assertThat(policy.numRetries()).isZero());
+    }
+}
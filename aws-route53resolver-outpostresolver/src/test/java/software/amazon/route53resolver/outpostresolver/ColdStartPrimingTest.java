@@ -0,0 +1,31 @@
+package software.amazon.route53resolver.outpostresolver;
+
+import com.amazonaws.services.route53resolver.AmazonRoute53Resolver;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ColdStartPrimingTest {
+
+    @Test
+    public void testPrimingLeavesSharedStateUntouched() throws Exception {
+        final int limit = AdaptiveConcurrencyLimiter.shared().getLimit();
+        final int tokens = RetryTokenBucket.shared().getAvailableTokens();
+
+        ColdStartPriming.prime();
+
+        assertThat(AdaptiveConcurrencyLimiter.shared().getLimit()).isEqualTo(limit);
+        assertThat(AdaptiveConcurrencyLimiter.shared().getInFlight()).isZero();
+        assertThat(RetryTokenBucket.shared().getAvailableTokens()).isEqualTo(tokens);
+    }
+
+    @Test
+    public void testRestoreBuildsFreshClient() throws Exception {
+        ColdStartPriming.prime();
+        final AmazonRoute53Resolver beforeCheckpoint = ClientBuilder.getClient();
+
+        ClientBuilder.reset();
+
+        assertThat(ClientBuilder.getClient()).isNotSameAs(beforeCheckpoint);
+    }
+}
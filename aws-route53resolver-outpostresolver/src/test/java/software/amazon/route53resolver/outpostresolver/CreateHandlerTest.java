@@ -16,6 +16,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.*;
@@ -115,6 +119,8 @@ public class CreateHandlerTest {
         assertThat(call3Response.getCallbackContext().isMutationStarted()).isTrue();
         assertThat(call3Response.getCallbackContext().isMutationStabilized()).isTrue();
 
+        //tags are only listed once the resolver leaves CREATING
+        verify(proxy, times(1)).injectCredentialsAndInvoke(any(ListTagsForResourceRequest.class), any(Function.class));
     }
 
     @Test
@@ -165,4 +171,72 @@ public class CreateHandlerTest {
         assertThat(call2Response.getCallbackContext().isMutationStabilized()).isTrue();
 
     }
+
+    @Test
+    public void testCreateResumesUnfinishedTagRead() {
+        context = CallbackContext.builder()
+                .mutationStarted(true)
+                .mutationStabilized(true)
+                .outpostResolverId("rslvr-op-123")
+                .tagsNextToken("tags-2")
+                .tagsRead(java.util.Collections.singleton(
+                        software.amazon.route53resolver.outpostresolver.Tag.builder().key("key1").value("value1").build()))
+                .build();
+
+        lenient().when(proxy.injectCredentialsAndInvoke(any(GetOutpostResolverRequest.class), any(Function.class)))
+                .thenReturn(new GetOutpostResolverResult().withOutpostResolver(
+                        new OutpostResolver().withId("rslvr-op-123").withArn("arn-123").withStatus(OutpostResolverStatus.OPERATIONAL.toString())));
+        lenient().when(proxy.injectCredentialsAndInvoke(any(ListTagsForResourceRequest.class), any(Function.class)))
+                .thenReturn(new ListTagsForResourceResult().withTags(new Tag().withKey("key2").withValue("value2")));
+
+        final ProgressEvent<ResourceModel, CallbackContext> response
+                = handler.handleRequest(proxy, request, context, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel().getTags()).extracting(software.amazon.route53resolver.outpostresolver.Tag::getKey)
+                .containsExactlyInAnyOrder("key1", "key2");
+        assertThat(response.getCallbackContext().getTagsNextToken()).isNull();
+        verify(proxy).injectCredentialsAndInvoke(ArgumentMatchers.<AmazonWebServiceRequest>argThat(listTags ->
+                listTags instanceof ListTagsForResourceRequest
+                        && "tags-2".equals(((ListTagsForResourceRequest) listTags).getNextToken())), any(Function.class));
+    }
+
+    @Test
+    public void testCreateTagsOverflowOnceResolverExists() {
+        final Set<software.amazon.route53resolver.outpostresolver.Tag> tags = new HashSet<>();
+        for (int i = 0; i < TagReconciler.MAX_TAGS_PER_CALL + 50; i++) {
+            tags.add(software.amazon.route53resolver.outpostresolver.Tag.builder().key("key" + i).value("value" + i).build());
+        }
+        model = ResourceModel.builder().tags(tags).build();
+        request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .build();
+
+        CreateOutpostResolverResult createResponse = new CreateOutpostResolverResult().withOutpostResolver(
+                new OutpostResolver().withId("rslvr-op-123").withArn("arn:aws:route53resolver:us-west-2:123456789012:outpost-resolver/rslvr-op-123")
+                        .withStatus(OutpostResolverStatus.CREATING.toString()));
+        final List<AmazonWebServiceRequest> sent = new ArrayList<>();
+        when(proxy.injectCredentialsAndInvoke(any(AmazonWebServiceRequest.class), any(Function.class)))
+                .thenAnswer(invocation -> {
+                    final AmazonWebServiceRequest sentRequest = invocation.getArgument(0);
+                    sent.add(sentRequest);
+                    return sentRequest instanceof CreateOutpostResolverRequest ? createResponse : new TagResourceResult();
+                });
+
+        final ProgressEvent<ResourceModel, CallbackContext> response
+                = handler.handleRequest(proxy, request, context, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(sent).hasSize(2);
+        assertThat(((CreateOutpostResolverRequest) sent.get(0)).getTags()).hasSize(TagReconciler.MAX_TAGS_PER_CALL);
+        final TagResourceRequest overflow = (TagResourceRequest) sent.get(1);
+        assertThat(overflow.getResourceArn()).isEqualTo(createResponse.getOutpostResolver().getArn());
+        assertThat(overflow.getTags()).hasSize(50);
+        //the model owns its tags, later changes to them must not hit the TagSet they were built from
+        response.getResourceModel().getTags().add(software.amazon.route53resolver.outpostresolver.Tag.builder().key("added").value("v").build());
+        assertThat(response.getResourceModel().getTags()).hasSize(TagReconciler.MAX_TAGS_PER_CALL + 51);
+        //the overflow call runs under the create handler's role, so the schema has to grant it
+        assertThat(new Configuration().resourceSchemaJSONObject().getJSONObject("handlers").getJSONObject("create")
+                .getJSONArray("permissions").toList()).contains("route53resolver:TagResource");
+    }
 }
@@ -10,12 +10,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.Arrays;
 import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -86,6 +90,24 @@ public class DeleteHandlerTest {
 
     }
 
+    @Test
+    public void testDeleteFinishesWhenResolverIsNotFound() {
+        DeleteOutpostResolverResult deleteResponse = new DeleteOutpostResolverResult().withOutpostResolver(
+                new OutpostResolver().withId("rslvr-op-123").withStatus(OutpostResolverStatus.DELETING.toString()));
+
+        when(proxy.injectCredentialsAndInvoke(any(AmazonWebServiceRequest.class), any(Function.class)))
+                .thenReturn(deleteResponse)
+                .thenThrow(new ResourceNotFoundException("rslvr-op-123 not found"));
+
+        final ProgressEvent<ResourceModel, CallbackContext> call1Response
+                = handler.handleRequest(proxy, request, context, logger);
+        assertThat(call1Response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+
+        final ProgressEvent<ResourceModel, CallbackContext> call2Response
+                = handler.handleRequest(proxy, request, context, logger);
+        assertThat(call2Response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+    }
+
     @Test
     public void testDeleteNonExistentOutpostResolver() {
         model = ResourceModel.builder().build();
@@ -135,4 +157,148 @@ public class DeleteHandlerTest {
 
     }
 
+    @Test
+    public void testDeleteFailsFastWhenEndpointsRemainOnOutpost() {
+        request = withOutpost("arn:aws:outposts:us-west-2:123456789012:outpost/op-1");
+
+        ListResolverEndpointsResult firstPage = new ListResolverEndpointsResult()
+                .withResolverEndpoints(
+                        new ResolverEndpoint().withId("rslvr-in-1").withOutpostArn("arn:aws:outposts:us-west-2:123456789012:outpost/op-1"),
+                        new ResolverEndpoint().withId("rslvr-in-2").withOutpostArn("arn:aws:outposts:us-west-2:123456789012:outpost/op-2"),
+                        new ResolverEndpoint().withId("rslvr-in-3"))
+                .withNextToken("page-2");
+        ListResolverEndpointsResult secondPage = new ListResolverEndpointsResult()
+                .withResolverEndpoints(
+                        new ResolverEndpoint().withId("rslvr-out-4").withOutpostArn("arn:aws:outposts:us-west-2:123456789012:outpost/op-1"));
+
+        when(proxy.injectCredentialsAndInvoke(any(AmazonWebServiceRequest.class), any(Function.class)))
+                .thenReturn(firstPage)
+                .thenReturn(secondPage);
+
+        final ProgressEvent<ResourceModel, CallbackContext> response
+                = handler.handleRequest(proxy, request, context, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.ResourceConflict);
+        assertThat(response.getMessage()).contains("rslvr-in-1, rslvr-out-4").doesNotContain("rslvr-in-2");
+        assertThat(response.getCallbackContext().isMutationStarted()).isFalse();
+        verify(proxy, times(2)).injectCredentialsAndInvoke(any(ListResolverEndpointsRequest.class), any(Function.class));
+        verify(proxy, never()).injectCredentialsAndInvoke(any(DeleteOutpostResolverRequest.class), any(Function.class));
+    }
+
+    @Test
+    public void testDeleteProceedsWhenEndpointScanIsDenied() {
+        request = withOutpost("arn:aws:outposts:us-west-2:123456789012:outpost/op-1");
+
+        DeleteOutpostResolverResult deleteResponse = new DeleteOutpostResolverResult().withOutpostResolver(
+                new OutpostResolver().withId("rslvr-op-123").withStatus(OutpostResolverStatus.DELETING.toString()));
+
+        when(proxy.injectCredentialsAndInvoke(any(AmazonWebServiceRequest.class), any(Function.class)))
+                .thenThrow(new AccessDeniedException("not authorized to list resolver endpoints"))
+                .thenReturn(deleteResponse);
+
+        final ProgressEvent<ResourceModel, CallbackContext> response
+                = handler.handleRequest(proxy, request, context, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackContext().isMutationStarted()).isTrue();
+        verify(proxy, times(1)).injectCredentialsAndInvoke(any(ListResolverEndpointsRequest.class), any(Function.class));
+        verify(proxy, times(1)).injectCredentialsAndInvoke(any(DeleteOutpostResolverRequest.class), any(Function.class));
+    }
+
+    @Test
+    public void testDeleteIgnoresEndpointsAlreadyBeingDeleted() {
+        request = withOutpost("arn:aws:outposts:us-west-2:123456789012:outpost/op-1");
+
+        ListResolverEndpointsResult endpoints = new ListResolverEndpointsResult().withResolverEndpoints(
+                new ResolverEndpoint().withId("rslvr-in-1").withOutpostArn("arn:aws:outposts:us-west-2:123456789012:outpost/op-1")
+                        .withStatus(ResolverEndpointStatus.DELETING.toString()));
+        DeleteOutpostResolverResult deleteResponse = new DeleteOutpostResolverResult().withOutpostResolver(
+                new OutpostResolver().withId("rslvr-op-123").withStatus(OutpostResolverStatus.DELETING.toString()));
+
+        when(proxy.injectCredentialsAndInvoke(any(AmazonWebServiceRequest.class), any(Function.class)))
+                .thenReturn(endpoints)
+                .thenReturn(deleteResponse);
+
+        final ProgressEvent<ResourceModel, CallbackContext> response
+                = handler.handleRequest(proxy, request, context, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        verify(proxy, times(1)).injectCredentialsAndInvoke(any(DeleteOutpostResolverRequest.class), any(Function.class));
+    }
+
+    @Test
+    public void testDeleteScansEndpointsOnlyOnce() {
+        request = withOutpost("arn:aws:outposts:us-west-2:123456789012:outpost/op-1");
+
+        ListResolverEndpointsResult endpoints = new ListResolverEndpointsResult().withResolverEndpoints(
+                new ResolverEndpoint().withId("rslvr-in-2").withOutpostArn("arn:aws:outposts:us-west-2:123456789012:outpost/op-2"));
+        DeleteOutpostResolverResult deleteResponse = new DeleteOutpostResolverResult().withOutpostResolver(
+                new OutpostResolver().withId("rslvr-op-123").withStatus(OutpostResolverStatus.DELETING.toString()));
+
+        when(proxy.injectCredentialsAndInvoke(any(AmazonWebServiceRequest.class), any(Function.class)))
+                .thenReturn(endpoints)
+                .thenReturn(deleteResponse)
+                .thenReturn(new GetOutpostResolverResult());
+
+        final ProgressEvent<ResourceModel, CallbackContext> call1Response
+                = handler.handleRequest(proxy, request, context, logger);
+        assertThat(call1Response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(call1Response.getCallbackContext().isEndpointScanComplete()).isTrue();
+        assertThat(call1Response.getCallbackContext().getDependentEndpointIds()).isEmpty();
+
+        final ProgressEvent<ResourceModel, CallbackContext> call2Response
+                = handler.handleRequest(proxy, request, context, logger);
+        assertThat(call2Response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        verify(proxy, times(1)).injectCredentialsAndInvoke(any(ListResolverEndpointsRequest.class), any(Function.class));
+    }
+
+    @Test
+    public void testDeleteResumesEndpointScanFromContext() {
+        request = withOutpost("arn:aws:outposts:us-west-2:123456789012:outpost/op-1");
+        context.setEndpointScanNextToken("page-2");
+        context.setDependentEndpointIds(Arrays.asList("rslvr-in-1"));
+
+        when(proxy.injectCredentialsAndInvoke(any(AmazonWebServiceRequest.class), any(Function.class)))
+                .thenAnswer(invocation -> {
+                    final ListResolverEndpointsRequest listRequest = invocation.getArgument(0);
+                    assertThat(listRequest.getNextToken()).isEqualTo("page-2");
+                    return new ListResolverEndpointsResult();
+                });
+
+        final ProgressEvent<ResourceModel, CallbackContext> response
+                = handler.handleRequest(proxy, request, context, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.ResourceConflict);
+        assertThat(response.getMessage()).contains("rslvr-in-1");
+        assertThat(response.getCallbackContext().getEndpointScanNextToken()).isNull();
+    }
+
+    @Test
+    public void testThrottledEndpointScanBacksOffBeforeResuming() {
+        request = withOutpost("arn:aws:outposts:us-west-2:123456789012:outpost/op-1");
+
+        when(proxy.injectCredentialsAndInvoke(any(AmazonWebServiceRequest.class), any(Function.class)))
+                .thenReturn(new ListResolverEndpointsResult().withResolverEndpoints(
+                        new ResolverEndpoint().withId("rslvr-in-1").withOutpostArn("arn:aws:outposts:us-west-2:123456789012:outpost/op-1"))
+                        .withNextToken("page-2"))
+                .thenThrow(new ThrottlingException("slow down"));
+
+        final ProgressEvent<ResourceModel, CallbackContext> response
+                = new DeleteHandler(new ExponentialBackoffPollingPolicy(), new InvocationPoller(false, 0L), true)
+                .handleRequest(proxy, request, context, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackDelaySeconds()).isBetween(1, 2);
+        assertThat(response.getCallbackContext().getEndpointScanNextToken()).isEqualTo("page-2");
+        assertThat(response.getCallbackContext().getDependentEndpointIds()).containsExactly("rslvr-in-1");
+        assertThat(response.getCallbackContext().isMutationStarted()).isFalse();
+    }
+
+    private ResourceHandlerRequest<ResourceModel> withOutpost(final String outpostArn) {
+        return ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(ResourceModel.builder().id("rslvr-op-123").outpostArn(outpostArn).build())
+                .build();
+    }
 }
@@ -0,0 +1,54 @@
+package software.amazon.route53resolver.outpostresolver;
+
+import com.amazonaws.services.route53resolver.model.OutpostResolverStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExponentialBackoffPollingPolicyTest {
+
+    private AtomicLong clock;
+    private ExponentialBackoffPollingPolicy policy;
+    private CallbackContext context;
+
+    @BeforeEach
+    public void setup() {
+        clock = new AtomicLong(1_000_000L);
+        policy = new ExponentialBackoffPollingPolicy(new Random(42), clock::get);
+        context = CallbackContext.builder().build();
+    }
+
+    @Test
+    public void testFirstPollIsShortAndRecorded() {
+        assertThat(policy.nextDelaySeconds(OutpostResolverStatus.UPDATING.toString(), 4, context)).isEqualTo(5);
+        assertThat(context.getStabilizationAttempts()).isEqualTo(1);
+        assertThat(context.getStabilizationStartTime()).isEqualTo(1_000_000L);
+
+        assertThat(policy.nextDelaySeconds(OutpostResolverStatus.CREATING.toString(), 4, CallbackContext.builder().build())).isEqualTo(10);
+    }
+
+    @Test
+    public void testDelayGrowsWithinCeiling() {
+        int maxObserved = 0;
+        for (int attempt = 0; attempt < 20; attempt++) {
+            final int delay = policy.nextDelaySeconds(OutpostResolverStatus.DELETING.toString(), 4, context);
+            //ceiling for transitions is 30 seconds plus 2 seconds per instance
+            assertThat(delay).isBetween(1, 38);
+            maxObserved = Math.max(maxObserved, delay);
+        }
+        assertThat(maxObserved).isGreaterThan(19);
+    }
+
+    @Test
+    public void testInstanceCountRaisesCeiling() {
+        context.setStabilizationAttempts(30);
+        context.setStabilizationStartTime(clock.get() - 11 * 60 * 1000L);
+
+        assertThat(policy.nextDelaySeconds(OutpostResolverStatus.CREATING.toString(), 4, context)).isBetween(34, 68);
+        assertThat(policy.nextDelaySeconds(OutpostResolverStatus.CREATING.toString(), 256, context)).isBetween(60, 120);
+    }
+}
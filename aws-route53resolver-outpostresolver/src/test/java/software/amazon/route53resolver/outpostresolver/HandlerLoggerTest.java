@@ -0,0 +1,67 @@
+package software.amazon.route53resolver.outpostresolver;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HandlerLoggerTest {
+
+    private final List<String> lines = new ArrayList<>();
+
+    @Test
+    public void testSuppressedLevelNeverBuildsFields() {
+        final HandlerLogger log = new HandlerLogger(lines::add, "Read", HandlerLogger.Level.INFO, 1);
+
+        log.debug("Read", () -> {
+            throw new AssertionError("fields of a suppressed event were built");
+        });
+
+        assertThat(lines).isEmpty();
+    }
+
+    @Test
+    public void testRequestIsOneJsonLineWithoutTagValues() {
+        final HandlerLogger log = new HandlerLogger(lines::add, "Create", HandlerLogger.Level.INFO, 1);
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .clientRequestToken("token")
+                .desiredResourceState(ResourceModel.builder()
+                        .name("resolver")
+                        .tags(Collections.singleton(Tag.builder().key("owner").value("secret-value").build()))
+                        .build())
+                .desiredResourceTags(Collections.singletonMap("stack", "stack-secret"))
+                .build();
+
+        log.request(request, false);
+
+        assertThat(lines).hasSize(1);
+        assertThat(lines.get(0)).doesNotContain("\n").doesNotContain("secret");
+        final JSONObject line = new JSONObject(lines.get(0));
+        assertThat(line.getString("level")).isEqualTo("INFO");
+        assertThat(line.getString("action")).isEqualTo("Create");
+        assertThat(line.getString("event")).isEqualTo("Request");
+        assertThat(line.getJSONObject("desired").getJSONArray("tagKeys").getString(0)).isEqualTo("owner");
+        assertThat(line.getJSONArray("desiredResourceTagKeys").getString(0)).isEqualTo("stack");
+    }
+
+    @Test
+    public void testPollRequestsAreSampled() {
+        //sample counters live for the container, a dedicated action keeps this test independent of the others
+        final HandlerLogger log = new HandlerLogger(lines::add, "SamplingTest", HandlerLogger.Level.INFO, 5);
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(ResourceModel.builder().id("rslvr-op-123").build())
+                .build();
+
+        for (int i = 0; i < 12; i++) {
+            log.request(request, true);
+        }
+
+        assertThat(lines).hasSize(3);
+        assertThat(new JSONObject(lines.get(0)).getInt("sampleEvery")).isEqualTo(5);
+    }
+}
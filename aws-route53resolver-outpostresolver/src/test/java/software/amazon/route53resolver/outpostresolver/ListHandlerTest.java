@@ -14,13 +14,18 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -80,5 +85,190 @@ public class ListHandlerTest {
         assertThat(response.getResourceModels().get(0).getStatus()).isEqualTo(OutpostResolverStatus.DELETING.toString());
         assertThat(response.getResourceModels().get(1).getStatus()).isEqualTo(OutpostResolverStatus.OPERATIONAL.toString());
         assertThat(response.getCallbackContext().getListOperationNextToken()).isEqualTo("token-1");
+        assertThat(response.getNextToken()).isEqualTo("token-1");
+    }
+
+    @Test
+    public void handleRequest_ResumesFromNextToken() {
+        handler = new ListHandler(10);
+        model = ResourceModel.builder().outpostArn("outpost-123").build();
+        request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .nextToken("token-1")
+                .build();
+
+        OutpostResolver op3 = new OutpostResolver().withArn("outpost-123").withId("rslvr-op-3").withStatus(OutpostResolverStatus.OPERATIONAL.toString());
+        ListOutpostResolversResult lastPage = new ListOutpostResolversResult()
+                .withOutpostResolvers(Arrays.asList(op3));
+
+        when(proxy.injectCredentialsAndInvoke(any(AmazonWebServiceRequest.class), any(Function.class)))
+                .thenReturn(lastPage)
+                .thenReturn(new ListTagsForResourceResult().withTags(new Tag().withKey("key1").withValue("value1")));
+
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, null, logger);
+
+        verify(proxy).injectCredentialsAndInvoke(argThat((AmazonWebServiceRequest listRequest) ->
+                listRequest instanceof ListOutpostResolversRequest
+                        && "token-1".equals(((ListOutpostResolversRequest) listRequest).getNextToken())
+                        && ((ListOutpostResolversRequest) listRequest).getMaxResults() == 10), any(Function.class));
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModels()).hasSize(1);
+        assertThat(response.getNextToken()).isNull();
+    }
+
+    @Test
+    public void handleRequest_HydratesTagsConcurrentlyInOrder() {
+        handler = new ListHandler(100, new TagHydrator(4));
+        model = ResourceModel.builder().outpostArn("outpost-123").build();
+        request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .build();
+
+        final List<OutpostResolver> resolvers = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            resolvers.add(new OutpostResolver().withArn("arn-" + i).withId("rslvr-op-" + i).withStatus(OutpostResolverStatus.OPERATIONAL.toString()));
+        }
+        when(proxy.injectCredentialsAndInvoke(any(ListOutpostResolversRequest.class), any(Function.class)))
+                .thenReturn(new ListOutpostResolversResult().withOutpostResolvers(resolvers));
+        when(proxy.injectCredentialsAndInvoke(any(ListTagsForResourceRequest.class), any(Function.class)))
+                .thenAnswer(invocation -> new ListTagsForResourceResult().withTags(new Tag().withKey("arn")
+                        .withValue(invocation.<ListTagsForResourceRequest>getArgument(0).getResourceArn())));
+
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+                handler.handleRequest(proxy, request, context, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModels()).hasSize(20);
+        for (int i = 0; i < 20; i++) {
+            final ResourceModel resolverModel = response.getResourceModels().get(i);
+            assertThat(resolverModel.getId()).isEqualTo("rslvr-op-" + i);
+            assertThat(resolverModel.getTags()).containsExactly(
+                    software.amazon.route53resolver.outpostresolver.Tag.builder().key("arn").value("arn-" + i).build());
+        }
+    }
+
+    @Test
+    public void handleRequest_StopsAtResponseBudgetAndResumesWithinPage() {
+        //every model is estimated at about 1.3 KB, so two fit into a response and the third does not
+        handler = new ListHandler(100, new TagHydrator(1), 3_000L);
+        model = ResourceModel.builder().outpostArn("outpost-123").build();
+        request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .nextToken("token-1")
+                .build();
+
+        final List<OutpostResolver> resolvers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            resolvers.add(new OutpostResolver().withArn("arn-" + i).withId("rslvr-op-" + i).withStatus(OutpostResolverStatus.OPERATIONAL.toString()));
+        }
+        final String largeValue = String.join("", Collections.nCopies(1_000, "v"));
+        when(proxy.injectCredentialsAndInvoke(any(ListOutpostResolversRequest.class), any(Function.class)))
+                .thenReturn(new ListOutpostResolversResult().withOutpostResolvers(resolvers).withNextToken("token-2"));
+        when(proxy.injectCredentialsAndInvoke(any(ListTagsForResourceRequest.class), any(Function.class)))
+                .thenReturn(new ListTagsForResourceResult().withTags(new Tag().withKey("key").withValue(largeValue)));
+
+        final ProgressEvent<ResourceModel, CallbackContext> first = handler.handleRequest(proxy, request, context, logger);
+
+        assertThat(first.getResourceModels()).extracting(ResourceModel::getId).containsExactly("rslvr-op-0", "rslvr-op-1");
+        assertThat(first.getNextToken()).isNotEqualTo("token-2");
+
+        final ProgressEvent<ResourceModel, CallbackContext> second = handler.handleRequest(proxy,
+                ResourceHandlerRequest.<ResourceModel>builder().desiredResourceState(model).nextToken(first.getNextToken()).build(),
+                context, logger);
+
+        assertThat(second.getResourceModels()).extracting(ResourceModel::getId).containsExactly("rslvr-op-2", "rslvr-op-3");
+        verify(proxy, times(2)).injectCredentialsAndInvoke(argThat((AmazonWebServiceRequest listRequest) ->
+                listRequest instanceof ListOutpostResolversRequest
+                        && "token-1".equals(((ListOutpostResolversRequest) listRequest).getNextToken())), any(Function.class));
+
+        final ProgressEvent<ResourceModel, CallbackContext> third = handler.handleRequest(proxy,
+                ResourceHandlerRequest.<ResourceModel>builder().desiredResourceState(model).nextToken(second.getNextToken()).build(),
+                context, logger);
+
+        assertThat(third.getResourceModels()).extracting(ResourceModel::getId).containsExactly("rslvr-op-4");
+        assertThat(third.getNextToken()).isEqualTo("token-2");
+    }
+
+    @Test
+    public void handleRequest_ReadsNoTagsForResolversBeyondTheBudget() {
+        //two models fill the response, the next batch is judged with their tags and never hydrated
+        handler = new ListHandler(100, new TagHydrator(1), 3_000L);
+        model = ResourceModel.builder().outpostArn("outpost-123").build();
+        request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .build();
+
+        final List<OutpostResolver> resolvers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            resolvers.add(new OutpostResolver().withArn("arn-" + i).withId("rslvr-op-" + i).withStatus(OutpostResolverStatus.OPERATIONAL.toString()));
+        }
+        final String largeValue = String.join("", Collections.nCopies(1_000, "v"));
+        when(proxy.injectCredentialsAndInvoke(any(ListOutpostResolversRequest.class), any(Function.class)))
+                .thenReturn(new ListOutpostResolversResult().withOutpostResolvers(resolvers));
+        when(proxy.injectCredentialsAndInvoke(any(ListTagsForResourceRequest.class), any(Function.class)))
+                .thenReturn(new ListTagsForResourceResult().withTags(new Tag().withKey("key").withValue(largeValue)));
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy, request, context, logger);
+
+        assertThat(response.getResourceModels()).extracting(ResourceModel::getId).containsExactly("rslvr-op-0", "rslvr-op-1");
+        verify(proxy, times(2)).injectCredentialsAndInvoke(any(ListTagsForResourceRequest.class), any(Function.class));
+    }
+
+    @Test
+    public void handleRequest_ResumesAfterLastReturnedResolverWhenPageShifts() {
+        handler = new ListHandler(100, new TagHydrator(1), 3_000L);
+        model = ResourceModel.builder().outpostArn("outpost-123").build();
+        request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .build();
+
+        final List<OutpostResolver> resolvers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            resolvers.add(new OutpostResolver().withArn("arn-" + i).withId("rslvr-op-" + i).withStatus(OutpostResolverStatus.OPERATIONAL.toString()));
+        }
+        final String largeValue = String.join("", Collections.nCopies(1_000, "v"));
+        //rslvr-op-0 is deleted between the two invocations, so every later resolver moves up one place
+        when(proxy.injectCredentialsAndInvoke(any(ListOutpostResolversRequest.class), any(Function.class)))
+                .thenReturn(new ListOutpostResolversResult().withOutpostResolvers(resolvers))
+                .thenReturn(new ListOutpostResolversResult().withOutpostResolvers(resolvers.subList(1, 5)));
+        when(proxy.injectCredentialsAndInvoke(any(ListTagsForResourceRequest.class), any(Function.class)))
+                .thenReturn(new ListTagsForResourceResult().withTags(new Tag().withKey("key").withValue(largeValue)));
+
+        final ProgressEvent<ResourceModel, CallbackContext> first = handler.handleRequest(proxy, request, context, logger);
+        assertThat(first.getResourceModels()).extracting(ResourceModel::getId).containsExactly("rslvr-op-0", "rslvr-op-1");
+
+        final ProgressEvent<ResourceModel, CallbackContext> second = handler.handleRequest(proxy,
+                ResourceHandlerRequest.<ResourceModel>builder().desiredResourceState(model).nextToken(first.getNextToken()).build(),
+                context, logger);
+
+        assertThat(second.getResourceModels()).extracting(ResourceModel::getId).containsExactly("rslvr-op-2", "rslvr-op-3");
+    }
+
+    @Test
+    public void estimatedBytes_CountsEveryReturnedField() {
+        final ResourceModel bare = ResourceModel.builder().id("rslvr-op-1").build();
+        final ResourceModel modified = ResourceModel.builder().id("rslvr-op-1").modificationTime("2023-01-01T00:00:00.000Z").build();
+
+        assertThat(ListHandler.estimatedBytes(modified) - ListHandler.estimatedBytes(bare)).isEqualTo(24L);
+    }
+
+    @Test
+    public void continuationToken_RoundTripsAndPassesServiceTokensThrough() {
+        final ListContinuationToken token = ListContinuationToken.decode(new ListContinuationToken("service/token+1", 7).encode());
+
+        assertThat(token.getServiceToken()).isEqualTo("service/token+1");
+        assertThat(token.getOffset()).isEqualTo(7);
+        assertThat(new ListContinuationToken(null, 3).encode()).isNotNull();
+        assertThat(ListContinuationToken.decode(new ListContinuationToken(null, 3).encode()).getServiceToken()).isNull();
+        assertThat(new ListContinuationToken("token-1", 0).encode()).isEqualTo("token-1");
+        assertThat(ListContinuationToken.decode("token-1").getServiceToken()).isEqualTo("token-1");
+        assertThat(ListContinuationToken.decode("olr1.bogus").getServiceToken()).isEqualTo("olr1.bogus");
+
+        final ListContinuationToken anchored = ListContinuationToken.decode(new ListContinuationToken("token-2", 4, "rslvr-op-3").encode());
+        assertThat(anchored.getServiceToken()).isEqualTo("token-2");
+        assertThat(anchored.getOffset()).isEqualTo(4);
+        assertThat(anchored.getLastId()).isEqualTo("rslvr-op-3");
+        assertThat(ListContinuationToken.decode(new ListContinuationToken("token-2", 4).encode()).getLastId()).isNull();
     }
 }
@@ -0,0 +1,115 @@
+package software.amazon.route53resolver.outpostresolver;
+
+import com.amazonaws.services.route53resolver.AmazonRoute53Resolver;
+import com.amazonaws.services.route53resolver.model.AccessDeniedException;
+import com.amazonaws.services.route53resolver.model.ListOutpostResolversRequest;
+import com.amazonaws.services.route53resolver.model.ListOutpostResolversResult;
+import com.amazonaws.services.route53resolver.model.OutpostResolver;
+import org.junit.jupiter.api.Test;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.route53resolver.outpostresolver.simulator.PassThroughClientProxy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class OutpostReadCoalescerTest {
+
+    private static final String OUTPOST_ARN = "arn:aws:outposts:us-west-2:123456789012:outpost/op-0123456789abcdef0";
+
+    private final AmazonRoute53Resolver client = mock(AmazonRoute53Resolver.class);
+    private final ResolverApiInvoker invoker = new ResolverApiInvoker(new PassThroughClientProxy());
+    private final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .awsAccountId("123456789012")
+            .region("us-west-2")
+            .build();
+
+    @Test
+    public void testConcurrentReadsShareOneSweep() throws Exception {
+        when(client.listOutpostResolvers(any(ListOutpostResolversRequest.class)))
+                .thenReturn(new ListOutpostResolversResult().withOutpostResolvers(resolver("rslvr-op-1"), resolver("rslvr-op-2")).withNextToken("page-2"))
+                .thenReturn(new ListOutpostResolversResult().withOutpostResolvers(resolver("rslvr-op-3")));
+        final OutpostReadCoalescer coalescer = new OutpostReadCoalescer(true, 500L);
+        //the first Read of a quiet outpost goes its own way, the ones right behind it share a sweep
+        assertThat(coalescer.read(request, OUTPOST_ARN, "rslvr-op-0", invoker, client)).isNull();
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<OutpostResolver>> reads = new ArrayList<>();
+        try {
+            for (String id : new String[] {"rslvr-op-1", "rslvr-op-2", "rslvr-op-3"}) {
+                reads.add(executor.submit(() -> {
+                    start.await();
+                    return coalescer.read(request, OUTPOST_ARN, id, invoker, client);
+                }));
+            }
+            start.countDown();
+
+            assertThat(reads.get(0).get().getId()).isEqualTo("rslvr-op-1");
+            assertThat(reads.get(1).get().getId()).isEqualTo("rslvr-op-2");
+            assertThat(reads.get(2).get().getId()).isEqualTo("rslvr-op-3");
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(client, times(2)).listOutpostResolvers(any(ListOutpostResolversRequest.class));
+    }
+
+    @Test
+    public void testLoneReadFallsBackToGet() {
+        final OutpostReadCoalescer coalescer = new OutpostReadCoalescer(true, 1L);
+
+        assertThat(coalescer.read(request, OUTPOST_ARN, "rslvr-op-1", invoker, client)).isNull();
+        assertThat(coalescer.read(request, OUTPOST_ARN, "rslvr-op-2", invoker, client)).isNull();
+        verify(client, never()).listOutpostResolvers(any(ListOutpostResolversRequest.class));
+    }
+
+    @Test
+    public void testReadOfQuietOutpostDoesNotWait() {
+        final OutpostReadCoalescer coalescer = new OutpostReadCoalescer(true, 60_000L);
+        final long start = System.currentTimeMillis();
+
+        assertThat(coalescer.read(request, OUTPOST_ARN, "rslvr-op-1", invoker, client)).isNull();
+        assertThat(System.currentTimeMillis() - start).isLessThan(1_000L);
+    }
+
+    @Test
+    public void testDeniedSweepFallsBackToGet() throws Exception {
+        when(client.listOutpostResolvers(any(ListOutpostResolversRequest.class)))
+                .thenThrow(new AccessDeniedException("not allowed"));
+        final OutpostReadCoalescer coalescer = new OutpostReadCoalescer(true, 200L);
+        assertThat(coalescer.read(request, OUTPOST_ARN, "rslvr-op-0", invoker, client)).isNull();
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<OutpostResolver> leader = executor.submit(() -> coalescer.read(request, OUTPOST_ARN, "rslvr-op-1", invoker, client));
+            final Future<OutpostResolver> follower = executor.submit(() -> coalescer.read(request, OUTPOST_ARN, "rslvr-op-2", invoker, client));
+
+            assertThat(leader.get()).isNull();
+            assertThat(follower.get()).isNull();
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(client, times(1)).listOutpostResolvers(any(ListOutpostResolversRequest.class));
+    }
+
+    @Test
+    public void testDisabledCoalescerNeverSweeps() {
+        final OutpostReadCoalescer coalescer = new OutpostReadCoalescer(false, 1L);
+
+        assertThat(coalescer.read(request, OUTPOST_ARN, "rslvr-op-1", invoker, client)).isNull();
+        verify(client, never()).listOutpostResolvers(any(ListOutpostResolversRequest.class));
+    }
+
+    private static OutpostResolver resolver(final String id) {
+        return new OutpostResolver().withId(id).withOutpostArn(OUTPOST_ARN).withStatus("OPERATIONAL");
+    }
+}
@@ -6,6 +6,11 @@ import com.amazonaws.services.route53resolver.model.ListTagsForResourceResult;
 import com.amazonaws.services.route53resolver.model.OutpostResolver;
 import com.amazonaws.services.route53resolver.model.OutpostResolverStatus;
 import com.amazonaws.services.route53resolver.model.Tag;
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.services.route53resolver.Route53ResolverAsyncClient;
+import software.amazon.awssdk.services.route53resolver.model.GetOutpostResolverResponse;
+import software.amazon.awssdk.services.route53resolver.model.ListTagsForResourceRequest;
+import software.amazon.awssdk.services.route53resolver.model.ListTagsForResourceResponse;
 import software.amazon.cloudformation.proxy.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,11 +19,15 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -90,4 +99,100 @@ public class ReadHandlerTest {
         assertThat(call1Response.getStatus()).isEqualTo(OperationStatus.FAILED);
         assertThat(call1Response.getErrorCode()).isEqualTo(HandlerErrorCode.NotFound);
     }
+
+    @Test
+    public void handleRequest_AsyncReadsResolverAndTagsTogether() {
+        final String arn = "arn:aws:route53resolver:us-west-2:123456789012:outpost-resolver/rslvr-op-123";
+        model = ResourceModel.builder().id("rslvr-op-123").build();
+        request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(model)
+                .awsPartition("aws")
+                .region("us-west-2")
+                .awsAccountId("123456789012")
+                .build();
+        final Route53ResolverAsyncClient asyncClient = mock(Route53ResolverAsyncClient.class);
+        when(proxy.injectCredentialsAndInvokeV2Async(any(AwsRequest.class), any(Function.class)))
+                .thenAnswer(invocation -> invocation.<Function<AwsRequest, CompletableFuture<?>>>getArgument(1)
+                        .apply(invocation.getArgument(0)));
+        when(asyncClient.getOutpostResolver(any(software.amazon.awssdk.services.route53resolver.model.GetOutpostResolverRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(GetOutpostResolverResponse.builder()
+                        .outpostResolver(software.amazon.awssdk.services.route53resolver.model.OutpostResolver.builder()
+                                .id("rslvr-op-123").arn(arn).status("OPERATIONAL").instanceCount(4).build())
+                        .build()));
+        when(asyncClient.listTagsForResource(ListTagsForResourceRequest.builder().resourceArn(arn).build()))
+                .thenReturn(CompletableFuture.completedFuture(ListTagsForResourceResponse.builder()
+                        .tags(software.amazon.awssdk.services.route53resolver.model.Tag.builder().key("key1").value("value1").build())
+                        .build()));
+
+        final ProgressEvent<ResourceModel, CallbackContext> response
+                = handler.doHandleRequest(proxy, request, context, logger, null, asyncClient);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel().getInstanceCount()).isEqualTo(4);
+        assertThat(response.getResourceModel().getTags())
+                .containsExactly(software.amazon.route53resolver.outpostresolver.Tag.builder().key("key1").value("value1").build());
+        verify(proxy, never()).injectCredentialsAndInvoke(any(AmazonWebServiceRequest.class), any(Function.class));
+    }
+
+    @Test
+    public void handleRequest_AsyncEarlyTagReadIsCancelledWhenArnDiffers() {
+        final String expectedArn = "arn:aws:route53resolver:us-west-2:123456789012:outpost-resolver/rslvr-op-123";
+        final String actualArn = "arn:aws-us-gov:route53resolver:us-west-2:123456789012:outpost-resolver/rslvr-op-123";
+        request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(ResourceModel.builder().id("rslvr-op-123").build())
+                .awsPartition("aws")
+                .region("us-west-2")
+                .awsAccountId("123456789012")
+                .build();
+        final Route53ResolverAsyncClient asyncClient = mock(Route53ResolverAsyncClient.class);
+        when(proxy.injectCredentialsAndInvokeV2Async(any(AwsRequest.class), any(Function.class)))
+                .thenAnswer(invocation -> invocation.<Function<AwsRequest, CompletableFuture<?>>>getArgument(1)
+                        .apply(invocation.getArgument(0)));
+        when(asyncClient.getOutpostResolver(any(software.amazon.awssdk.services.route53resolver.model.GetOutpostResolverRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(GetOutpostResolverResponse.builder()
+                        .outpostResolver(software.amazon.awssdk.services.route53resolver.model.OutpostResolver.builder()
+                                .id("rslvr-op-123").arn(actualArn).status("OPERATIONAL").build())
+                        .build()));
+        final CompletableFuture<ListTagsForResourceResponse> earlyPage = new CompletableFuture<>();
+        when(asyncClient.listTagsForResource(ListTagsForResourceRequest.builder().resourceArn(expectedArn).build()))
+                .thenReturn(earlyPage);
+        when(asyncClient.listTagsForResource(ListTagsForResourceRequest.builder().resourceArn(actualArn).build()))
+                .thenReturn(CompletableFuture.completedFuture(ListTagsForResourceResponse.builder().build()));
+
+        final ProgressEvent<ResourceModel, CallbackContext> response
+                = handler.doHandleRequest(proxy, request, context, logger, null, asyncClient);
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+
+        //the early read's first page arrives after the handler moved on, its next page is never requested
+        earlyPage.complete(ListTagsForResourceResponse.builder().nextToken("page-2").build());
+        verify(asyncClient, never()).listTagsForResource(ListTagsForResourceRequest.builder()
+                .resourceArn(expectedArn).nextToken("page-2").build());
+    }
+
+    @Test
+    public void handleRequest_RepeatedReadIsServedFromCache() {
+        handler = new ReadHandler(new ResolverSnapshotCache(true, 5_000L, 10, System::currentTimeMillis));
+        request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(ResourceModel.builder().id("rslvr-op-123").build())
+                .awsAccountId("123456789012")
+                .region("us-west-2")
+                .build();
+        when(proxy.injectCredentialsAndInvoke(any(AmazonWebServiceRequest.class), any(Function.class)))
+                .thenReturn(new GetOutpostResolverResult().withOutpostResolver(
+                        new OutpostResolver().withId("rslvr-op-123").withStatus(OutpostResolverStatus.OPERATIONAL.toString())))
+                .thenReturn(new ListTagsForResourceResult().withTags(new Tag().withKey("key1").withValue("value1")));
+
+        handler.handleRequest(proxy, request, context, logger);
+        final ProgressEvent<ResourceModel, CallbackContext> cached = handler.handleRequest(proxy,
+                ResourceHandlerRequest.<ResourceModel>builder()
+                        .desiredResourceState(ResourceModel.builder().id("rslvr-op-123").build())
+                        .awsAccountId("123456789012")
+                        .region("us-west-2")
+                        .build(), context, logger);
+
+        assertThat(cached.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(cached.getResourceModel().getStatus()).isEqualTo("OPERATIONAL");
+        assertThat(cached.getResourceModel().getTags()).hasSize(1);
+        verify(proxy, times(2)).injectCredentialsAndInvoke(any(AmazonWebServiceRequest.class), any(Function.class));
+    }
 }
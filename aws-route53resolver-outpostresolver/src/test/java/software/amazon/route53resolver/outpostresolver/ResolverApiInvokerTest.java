@@ -0,0 +1,193 @@
+package software.amazon.route53resolver.outpostresolver;
+
+import com.amazonaws.services.route53resolver.AmazonRoute53Resolver;
+import com.amazonaws.services.route53resolver.model.GetOutpostResolverRequest;
+import com.amazonaws.services.route53resolver.model.GetOutpostResolverResult;
+import com.amazonaws.services.route53resolver.model.InvalidRequestException;
+import com.amazonaws.services.route53resolver.model.ResourceNotFoundException;
+import com.amazonaws.services.route53resolver.model.ThrottlingException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.services.route53resolver.Route53ResolverAsyncClient;
+import software.amazon.awssdk.services.route53resolver.model.GetOutpostResolverResponse;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ResolverApiInvokerTest {
+
+    private AmazonWebServicesClientProxy proxy;
+    private AmazonRoute53Resolver client;
+
+    @BeforeEach
+    public void setup() {
+        proxy = mock(AmazonWebServicesClientProxy.class);
+        client = mock(AmazonRoute53Resolver.class);
+    }
+
+    @Test
+    public void testThrottlingIsRetried() {
+        final GetOutpostResolverResult result = new GetOutpostResolverResult();
+        when(proxy.injectCredentialsAndInvoke(any(GetOutpostResolverRequest.class), any(Function.class)))
+                .thenThrow(new ThrottlingException("slow down"))
+                .thenReturn(result);
+        final ResolverApiInvoker invoker = invoker(new RetryTokenBucket(100));
+
+        assertThat(invoker.invoke(new GetOutpostResolverRequest(), client::getOutpostResolver)).isSameAs(result);
+        assertThat(invoker.getRetryCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testTerminalErrorIsNotRetried() {
+        when(proxy.injectCredentialsAndInvoke(any(GetOutpostResolverRequest.class), any(Function.class)))
+                .thenThrow(new InvalidRequestException("bad"));
+        final ResolverApiInvoker invoker = invoker(new RetryTokenBucket(100));
+
+        assertThatThrownBy(() -> invoker.invoke(new GetOutpostResolverRequest(), client::getOutpostResolver))
+                .isInstanceOf(InvalidRequestException.class);
+        verify(proxy, times(1)).injectCredentialsAndInvoke(any(GetOutpostResolverRequest.class), any(Function.class));
+    }
+
+    @Test
+    public void testEmptyRetryBudgetStopsRetries() {
+        when(proxy.injectCredentialsAndInvoke(any(GetOutpostResolverRequest.class), any(Function.class)))
+                .thenThrow(new ThrottlingException("slow down"));
+        final ResolverApiInvoker invoker = invoker(new RetryTokenBucket(0));
+
+        assertThatThrownBy(() -> invoker.invoke(new GetOutpostResolverRequest(), client::getOutpostResolver))
+                .isInstanceOf(ThrottlingException.class);
+        assertThat(invoker.getRetryCount()).isZero();
+    }
+
+    @Test
+    public void testAsyncThrottlingIsRetried() {
+        final GetOutpostResolverResponse response = GetOutpostResolverResponse.builder().build();
+        when(proxy.injectCredentialsAndInvokeV2Async(any(software.amazon.awssdk.services.route53resolver.model.GetOutpostResolverRequest.class), any(Function.class)))
+                .thenReturn(failed(software.amazon.awssdk.services.route53resolver.model.ThrottlingException.builder()
+                        .statusCode(400)
+                        .awsErrorDetails(AwsErrorDetails.builder().errorCode("ThrottlingException").errorMessage("slow down").build())
+                        .build()))
+                .thenReturn(CompletableFuture.completedFuture(response));
+        final ResolverApiInvoker invoker = invoker(new RetryTokenBucket(100));
+
+        final GetOutpostResolverResponse result = ResolverApiInvoker.join(invoker.invokeAsync(
+                software.amazon.awssdk.services.route53resolver.model.GetOutpostResolverRequest.builder().build(),
+                mock(Route53ResolverAsyncClient.class)::getOutpostResolver));
+
+        assertThat(result).isSameAs(response);
+        assertThat(invoker.getRetryCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testAsyncFailureSurfacesAsV1Exception() {
+        when(proxy.injectCredentialsAndInvokeV2Async(any(software.amazon.awssdk.services.route53resolver.model.GetOutpostResolverRequest.class), any(Function.class)))
+                .thenReturn(failed(software.amazon.awssdk.services.route53resolver.model.ResourceNotFoundException.builder()
+                        .statusCode(400)
+                        .awsErrorDetails(AwsErrorDetails.builder().errorCode("ResourceNotFoundException").errorMessage("gone").build())
+                        .build()));
+        final ResolverApiInvoker invoker = invoker(new RetryTokenBucket(100));
+
+        assertThatThrownBy(() -> ResolverApiInvoker.join(invoker.invokeAsync(
+                software.amazon.awssdk.services.route53resolver.model.GetOutpostResolverRequest.builder().build(),
+                mock(Route53ResolverAsyncClient.class)::getOutpostResolver)))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("gone");
+        assertThat(invoker.getRetryCount()).isZero();
+    }
+
+    @Test
+    public void testOverlappingReadsOfOneCallerShareOneCall() throws Exception {
+        final GetOutpostResolverResult result = new GetOutpostResolverResult();
+        final ApiMetrics followerMetrics = new ApiMetrics("Read");
+        final CountDownLatch release = new CountDownLatch(1);
+        when(proxy.injectCredentialsAndInvoke(any(GetOutpostResolverRequest.class), any(Function.class))).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return result;
+        });
+        final SingleFlight singleFlight = new SingleFlight(true);
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .awsAccountId("123456789012")
+                .region("us-west-2")
+                .build();
+        final ResolverApiInvoker leader = new ResolverApiInvoker(proxy, message -> { }, InvocationTimer.start(60_000L),
+                new RetryTokenBucket(100), new AdaptiveConcurrencyLimiter(8, 1, 8), singleFlight, new ApiMetrics("Read"), 4).forCaller(request);
+        final ResolverApiInvoker follower = new ResolverApiInvoker(proxy, message -> { }, InvocationTimer.start(60_000L),
+                new RetryTokenBucket(100), new AdaptiveConcurrencyLimiter(8, 1, 8), singleFlight, followerMetrics, 4).forCaller(request);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<GetOutpostResolverResult> first = executor.submit(() ->
+                    leader.invoke(new GetOutpostResolverRequest().withId("rslvr-op-1"), client::getOutpostResolver));
+            while (singleFlight.inFlightCount() == 0) {
+                Thread.sleep(1L);
+            }
+            final Future<GetOutpostResolverResult> second = executor.submit(() ->
+                    follower.invoke(new GetOutpostResolverRequest().withId("rslvr-op-1"), client::getOutpostResolver));
+            while (followerMetrics.getSharedCallCount("GetOutpostResolver") == 0) {
+                Thread.sleep(1L);
+            }
+            release.countDown();
+
+            assertThat(first.get()).isSameAs(result);
+            assertThat(second.get()).isSameAs(result);
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(proxy, times(1)).injectCredentialsAndInvoke(any(GetOutpostResolverRequest.class), any(Function.class));
+        assertThat(followerMetrics.getCallCount("GetOutpostResolver")).isZero();
+    }
+
+    @Test
+    public void testAsyncCallWaitsForSlotWithoutBlockingTheCaller() {
+        final GetOutpostResolverResponse response = GetOutpostResolverResponse.builder().build();
+        when(proxy.injectCredentialsAndInvokeV2Async(any(software.amazon.awssdk.services.route53resolver.model.GetOutpostResolverRequest.class), any(Function.class)))
+                .thenReturn(CompletableFuture.completedFuture(response));
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1);
+        assertThat(limiter.tryAcquire()).isTrue();
+        final ResolverApiInvoker invoker = new ResolverApiInvoker(proxy, message -> { }, InvocationTimer.start(60_000L),
+                new RetryTokenBucket(100), limiter, new SingleFlight(false), new ApiMetrics("Read"), 4);
+
+        final CompletableFuture<GetOutpostResolverResponse> pending = invoker.invokeAsync(
+                software.amazon.awssdk.services.route53resolver.model.GetOutpostResolverRequest.builder().build(),
+                mock(Route53ResolverAsyncClient.class)::getOutpostResolver);
+
+        //the caller got its future back while the only slot is still taken
+        assertThat(pending).isNotDone();
+        limiter.onFailure();
+        assertThat(ResolverApiInvoker.join(pending)).isSameAs(response);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    public void testThrottleBackoffGrowsAndIsCapped() {
+        assertThat(ResolverApiInvoker.throttleBackoffSeconds(0)).isZero();
+        assertThat(ResolverApiInvoker.throttleBackoffSeconds(1)).isBetween(1, 2);
+        assertThat(ResolverApiInvoker.throttleBackoffSeconds(3)).isBetween(4, 8);
+        assertThat(ResolverApiInvoker.throttleBackoffSeconds(40)).isBetween(16, 32);
+    }
+
+    private static <T> CompletableFuture<T> failed(final Throwable failure) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(failure);
+        return future;
+    }
+
+    private ResolverApiInvoker invoker(final RetryTokenBucket bucket) {
+        return new ResolverApiInvoker(proxy, message -> { }, InvocationTimer.start(60_000L), bucket, 4);
+    }
+}
@@ -0,0 +1,52 @@
+package software.amazon.route53resolver.outpostresolver;
+
+import com.amazonaws.services.route53resolver.model.OutpostResolver;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ResolverModelMapperTest {
+
+    private final CallbackContext context = CallbackContext.builder().build();
+
+    @Test
+    public void testUnchangedResolverIsNotMappedAgain() {
+        final ResourceModel model = ResourceModel.builder().build();
+
+        assertThat(ResolverModelMapper.refresh(model, resolver("CREATING", "2024-01-01T00:00:00Z"), context)).isTrue();
+        model.setName("kept");
+
+        assertThat(ResolverModelMapper.refresh(model, resolver("CREATING", "2024-01-01T00:00:00Z"), context)).isFalse();
+        assertThat(model.getName()).isEqualTo("kept");
+    }
+
+    @Test
+    public void testStatusOrModificationTimeChangeIsMapped() {
+        final ResourceModel model = ResourceModel.builder().build();
+        ResolverModelMapper.refresh(model, resolver("CREATING", "2024-01-01T00:00:00Z"), context);
+
+        assertThat(ResolverModelMapper.refresh(model, resolver("OPERATIONAL", "2024-01-01T00:00:00Z"), context)).isTrue();
+        assertThat(model.getStatus()).isEqualTo("OPERATIONAL");
+        assertThat(ResolverModelMapper.refresh(model, resolver("OPERATIONAL", "2024-01-01T00:05:00Z"), context)).isTrue();
+        assertThat(model.getModificationTime()).isEqualTo("2024-01-01T00:05:00Z");
+    }
+
+    @Test
+    public void testModelThatNeverSawTheResolverIsMapped() {
+        ResolverModelMapper.refresh(ResourceModel.builder().build(), resolver("CREATING", "2024-01-01T00:00:00Z"), context);
+        //same observation, but CloudFormation handed in its own copy of the model
+        final ResourceModel fresh = ResourceModel.builder().name("resolver").build();
+
+        assertThat(ResolverModelMapper.refresh(fresh, resolver("CREATING", "2024-01-01T00:00:00Z"), context)).isTrue();
+        assertThat(fresh.getId()).isEqualTo("rslvr-op-123");
+    }
+
+    private static OutpostResolver resolver(final String status, final String modificationTime) {
+        return new OutpostResolver()
+                .withId("rslvr-op-123")
+                .withArn("arn-123")
+                .withName("resolver")
+                .withStatus(status)
+                .withModificationTime(modificationTime);
+    }
+}
@@ -0,0 +1,112 @@
+package software.amazon.route53resolver.outpostresolver;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ResolverSnapshotCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1_000L);
+    private final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .awsAccountId("123456789012")
+            .region("us-west-2")
+            .build();
+
+    @Test
+    public void testSnapshotExpiresAfterTtl() {
+        final ResolverSnapshotCache cache = new ResolverSnapshotCache(true, 5_000L, 10, now::get);
+        cache.put(request, model("rslvr-op-1"));
+
+        now.addAndGet(4_999L);
+        assertThat(cache.get(request, "rslvr-op-1")).isNotNull();
+        now.addAndGet(1L);
+        assertThat(cache.get(request, "rslvr-op-1")).isNull();
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testLeastRecentlyReadEntryIsEvicted() {
+        final ResolverSnapshotCache cache = new ResolverSnapshotCache(true, 5_000L, 2, now::get);
+        cache.put(request, model("rslvr-op-1"));
+        cache.put(request, model("rslvr-op-2"));
+        cache.get(request, "rslvr-op-1");
+
+        cache.put(request, model("rslvr-op-3"));
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get(request, "rslvr-op-1")).isNotNull();
+        assertThat(cache.get(request, "rslvr-op-2")).isNull();
+    }
+
+    @Test
+    public void testReadStartedBeforeInvalidateDoesNotPutItsSnapshot() {
+        final ResolverSnapshotCache cache = new ResolverSnapshotCache(true, 5_000L, 10, now::get);
+        final long staleRead = cache.generation(request, "rslvr-op-1");
+        cache.invalidate(request, "rslvr-op-1");
+        final long freshRead = cache.generation(request, "rslvr-op-1");
+
+        cache.put(request, model("rslvr-op-1"), staleRead);
+        assertThat(cache.get(request, "rslvr-op-1")).isNull();
+
+        cache.put(request, model("rslvr-op-1"), freshRead);
+        assertThat(cache.get(request, "rslvr-op-1")).isNotNull();
+    }
+
+    @Test
+    public void testEvictedGenerationStillRejectsStalePut() {
+        final ResolverSnapshotCache cache = new ResolverSnapshotCache(true, 5_000L, 1, now::get);
+        final long staleRead = cache.generation(request, "rslvr-op-1");
+        cache.invalidate(request, "rslvr-op-1");
+        //a mutation of another resolver pushes rslvr-op-1's generation out of the bounded map
+        cache.invalidate(request, "rslvr-op-2");
+
+        cache.put(request, model("rslvr-op-1"), staleRead);
+        assertThat(cache.get(request, "rslvr-op-1")).isNull();
+    }
+
+    @Test
+    public void testInvalidateAndKeyIncludesAccountAndRegion() {
+        final ResolverSnapshotCache cache = new ResolverSnapshotCache(true, 5_000L, 10, now::get);
+        cache.put(request, model("rslvr-op-1"));
+        final ResourceHandlerRequest<ResourceModel> otherRegion = ResourceHandlerRequest.<ResourceModel>builder()
+                .awsAccountId("123456789012")
+                .region("us-east-1")
+                .build();
+
+        assertThat(cache.get(otherRegion, "rslvr-op-1")).isNull();
+        cache.invalidate(request, "rslvr-op-1");
+        assertThat(cache.get(request, "rslvr-op-1")).isNull();
+    }
+
+    @Test
+    public void testCallersGetTheirOwnCopy() {
+        final ResolverSnapshotCache cache = new ResolverSnapshotCache(true, 5_000L, 10, now::get);
+        cache.put(request, model("rslvr-op-1"));
+
+        cache.get(request, "rslvr-op-1").getTags().clear();
+
+        assertThat(cache.get(request, "rslvr-op-1").getTags()).hasSize(1);
+    }
+
+    @Test
+    public void testDisabledCacheStoresNothing() {
+        final ResolverSnapshotCache cache = new ResolverSnapshotCache(false, 5_000L, 10, now::get);
+        cache.put(request, model("rslvr-op-1"));
+
+        assertThat(cache.get(request, "rslvr-op-1")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    private static ResourceModel model(final String id) {
+        return ResourceModel.builder()
+                .id(id)
+                .status("OPERATIONAL")
+                .tags(new java.util.HashSet<>(Collections.singleton(Tag.builder().key("key").value("value").build())))
+                .build();
+    }
+}
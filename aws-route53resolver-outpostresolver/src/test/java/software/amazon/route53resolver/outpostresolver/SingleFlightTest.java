@@ -0,0 +1,94 @@
+package software.amazon.route53resolver.outpostresolver;
+
+import com.amazonaws.services.route53resolver.model.ThrottlingException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SingleFlightTest {
+
+    private final SingleFlight singleFlight = new SingleFlight(true);
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private final AtomicInteger calls = new AtomicInteger();
+    private final CountDownLatch joined = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    public void teardown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testOverlappingCallersShareOneCall() throws Exception {
+        final Object result = new Object();
+        final Future<Object> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+            calls.incrementAndGet();
+            await(release);
+            return result;
+        }, joined::countDown));
+        awaitInFlight();
+        final Future<Object> follower = executor.submit(() -> singleFlight.execute("key", () -> {
+            calls.incrementAndGet();
+            return new Object();
+        }, joined::countDown));
+        assertThat(joined.await(5, TimeUnit.SECONDS)).isTrue();
+        release.countDown();
+
+        assertThat(leader.get()).isSameAs(result);
+        assertThat(follower.get()).isSameAs(result);
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(singleFlight.inFlightCount()).isZero();
+    }
+
+    @Test
+    public void testFailureReachesEveryCaller() throws Exception {
+        final ThrottlingException failure = new ThrottlingException("slow down");
+        final Future<Object> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+            calls.incrementAndGet();
+            await(release);
+            throw failure;
+        }, joined::countDown));
+        awaitInFlight();
+        final Future<Object> follower = executor.submit(() -> singleFlight.execute("key", Object::new, joined::countDown));
+        assertThat(joined.await(5, TimeUnit.SECONDS)).isTrue();
+        release.countDown();
+
+        assertThatThrownBy(leader::get).isInstanceOf(ExecutionException.class).hasCause(failure);
+        assertThatThrownBy(follower::get).isInstanceOf(ExecutionException.class).hasCause(failure);
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testFinishedCallIsNeverReused() {
+        singleFlight.execute("key", calls::incrementAndGet, joined::countDown);
+        singleFlight.execute("key", calls::incrementAndGet, joined::countDown);
+
+        assertThat(calls.get()).isEqualTo(2);
+        assertThat(joined.getCount()).isEqualTo(1);
+    }
+
+    private void awaitInFlight() throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5_000L;
+        while (singleFlight.inFlightCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1L);
+        }
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package software.amazon.route53resolver.outpostresolver;
+
+import com.amazonaws.services.route53resolver.AmazonRoute53Resolver;
+import com.amazonaws.services.route53resolver.model.ListTagsForResourceRequest;
+import com.amazonaws.services.route53resolver.model.ListTagsForResourceResult;
+import com.amazonaws.services.route53resolver.model.ThrottlingException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.cloudformation.exceptions.CfnThrottlingException;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TagHelperTest {
+
+    private final AmazonRoute53Resolver client = mock(AmazonRoute53Resolver.class);
+    private final ResourceModel model = ResourceModel.builder().id("rslvr-op-123").arn("arn-123").build();
+    private AmazonWebServicesClientProxy proxy;
+
+    @BeforeEach
+    public void setup() {
+        proxy = mock(AmazonWebServicesClientProxy.class);
+    }
+
+    @Test
+    public void testThrottledPageCheckpointsAndResumes() {
+        when(proxy.injectCredentialsAndInvoke(any(ListTagsForResourceRequest.class), any(Function.class)))
+                .thenReturn(page("key1", "tags-2"))
+                .thenThrow(new ThrottlingException("slow down"))
+                .thenReturn(page("key2", null));
+        final CallbackContext context = CallbackContext.builder().build();
+
+        assertThat(TagHelper.listAndTranslateTags(client, invoker(60_000L), model, context)).isNull();
+        assertThat(context.getTagsNextToken()).isEqualTo("tags-2");
+        assertThat(context.getTagsRead()).containsExactly(tag("key1"));
+        assertThat(context.getThrottledCheckpoints()).isEqualTo(1);
+        assertThat(ResolverApiInvoker.throttleBackoffSeconds(context.getThrottledCheckpoints())).isBetween(1, 2);
+
+        final Set<Tag> tags = TagHelper.listAndTranslateTags(client, invoker(60_000L), model, context);
+
+        assertThat(tags).containsExactlyInAnyOrder(tag("key1"), tag("key2"));
+        assertThat(context.getTagsNextToken()).isNull();
+        assertThat(context.getTagsRead()).isNull();
+        assertThat(context.getThrottledCheckpoints()).isZero();
+        verify(proxy, times(2)).injectCredentialsAndInvoke(argThat((ListTagsForResourceRequest request) ->
+                request != null && "tags-2".equals(request.getNextToken())), any(Function.class));
+    }
+
+    @Test
+    public void testExhaustedInvocationStopsAfterOnePage() {
+        when(proxy.injectCredentialsAndInvoke(any(ListTagsForResourceRequest.class), any(Function.class)))
+                .thenReturn(page("key1", "tags-2"));
+        final CallbackContext context = CallbackContext.builder().build();
+
+        assertThat(TagHelper.listAndTranslateTags(client, invoker(0L), model, context)).isNull();
+        assertThat(context.getTagsNextToken()).isEqualTo("tags-2");
+        //running out of time is no reason to wait before carrying on
+        assertThat(ResolverApiInvoker.throttleBackoffSeconds(context.getThrottledCheckpoints())).isZero();
+        verify(proxy, times(1)).injectCredentialsAndInvoke(any(ListTagsForResourceRequest.class), any(Function.class));
+    }
+
+    @Test
+    public void testWithoutContextThrottlingStillFails() {
+        when(proxy.injectCredentialsAndInvoke(any(ListTagsForResourceRequest.class), any(Function.class)))
+                .thenReturn(page("key1", "tags-2"))
+                .thenThrow(new ThrottlingException("slow down"));
+
+        assertThatThrownBy(() -> TagHelper.listAndTranslateTags(client, invoker(60_000L), model))
+                .isInstanceOf(CfnThrottlingException.class);
+    }
+
+    //no retries, so a throttled page surfaces right away
+    private ResolverApiInvoker invoker(final long budgetMillis) {
+        return new ResolverApiInvoker(proxy, message -> { }, InvocationTimer.start(budgetMillis), new RetryTokenBucket(0), 1);
+    }
+
+    private static ListTagsForResourceResult page(final String key, final String nextToken) {
+        return new ListTagsForResourceResult()
+                .withTags(new com.amazonaws.services.route53resolver.model.Tag().withKey(key).withValue("value"))
+                .withNextToken(nextToken);
+    }
+
+    private static Tag tag(final String key) {
+        return Tag.builder().key(key).value("value").build();
+    }
+}
@@ -0,0 +1,78 @@
+package software.amazon.route53resolver.outpostresolver;
+
+import com.amazonaws.services.route53resolver.AmazonRoute53Resolver;
+import com.amazonaws.services.route53resolver.model.TagResourceRequest;
+import com.amazonaws.services.route53resolver.model.UntagResourceRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class TagReconcilerTest {
+
+    private AmazonWebServicesClientProxy proxy;
+    private AmazonRoute53Resolver client;
+    private TagReconciler reconciler;
+
+    @BeforeEach
+    public void setup() {
+        proxy = mock(AmazonWebServicesClientProxy.class);
+        client = mock(AmazonRoute53Resolver.class);
+        reconciler = new TagReconciler();
+    }
+
+    @Test
+    public void testDiff() {
+        final Set<Tag> previous = new HashSet<>(Arrays.asList(tag("unchanged", "1"), tag("changed", "old"), tag("removed", "x")));
+        final Set<Tag> desired = new HashSet<>(Arrays.asList(tag("unchanged", "1"), tag("changed", "new"), tag("added", "y")));
+
+        final TagReconciler.TagChanges changes = reconciler.diff(previous, desired);
+
+        assertThat(changes.getTagsToAdd()).containsOnly(entry("changed", "new"), entry("added", "y"));
+        assertThat(changes.getKeysToRemove()).containsExactly("removed");
+        assertThat(reconciler.diff(previous, previous).isEmpty()).isTrue();
+    }
+
+    @Test
+    public void testLargeTagSetsAreChunked() {
+        final Set<Tag> previous = new HashSet<>();
+        final Set<Tag> desired = new HashSet<>();
+        for (int i = 0; i < 450; i++) {
+            previous.add(tag("old-" + i, "v"));
+            desired.add(tag("new-" + i, "v"));
+        }
+
+        reconciler.apply(new ResolverApiInvoker(proxy), client, "arn-123", reconciler.diff(previous, desired));
+
+        verify(proxy, times(3)).injectCredentialsAndInvoke(any(TagResourceRequest.class), any(Function.class));
+        verify(proxy, times(3)).injectCredentialsAndInvoke(any(UntagResourceRequest.class), any(Function.class));
+    }
+
+    @Test
+    public void testChunkSizes() {
+        final Map<String, String> tags = new LinkedHashMap<>();
+        for (int i = 0; i < 401; i++) {
+            tags.put("key-" + i, "value");
+        }
+
+        assertThat(reconciler.chunk(tags)).extracting(Map::size).containsExactly(200, 200, 1);
+        assertThat(reconciler.chunk(new LinkedHashMap<>())).isEmpty();
+    }
+
+    private static Tag tag(final String key, final String value) {
+        return Tag.builder().key(key).value(value).build();
+    }
+}
@@ -0,0 +1,90 @@
+package software.amazon.route53resolver.outpostresolver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+public class TagSetTest {
+
+    @Test
+    public void testModelTagsWinOverStackTags() {
+        final ResourceModel model = ResourceModel.builder()
+                .tags(new HashSet<>(Arrays.asList(tag("owner", "resource"), tag("team", "dns"))))
+                .build();
+        final Map<String, String> stackTags = new LinkedHashMap<>();
+        stackTags.put("owner", "stack");
+        stackTags.put("env", "prod");
+
+        final TagSet tags = TagSet.resourceTags(model, stackTags);
+
+        assertThat(tags.asMap()).containsExactly(entry("env", "prod"), entry("owner", "resource"), entry("team", "dns"));
+        assertThat(tags.get("owner")).isEqualTo("resource");
+        assertThat(tags.containsKey("missing")).isFalse();
+    }
+
+    @Test
+    public void testEqualityIgnoresInsertionOrder() {
+        final TagSet first = TagSet.of(new HashSet<>(Arrays.asList(tag("a", "1"), tag("b", "2"))));
+        final Map<String, String> map = new LinkedHashMap<>();
+        map.put("b", "2");
+        map.put("a", "1");
+        final TagSet second = TagSet.of(map);
+
+        assertThat(first).isEqualTo(second).hasSameHashCodeAs(second);
+        assertThat(first).isNotEqualTo(TagSet.of(new HashSet<>(Arrays.asList(tag("a", "1"), tag("b", "3")))));
+    }
+
+    @Test
+    public void testDiff() {
+        final TagSet previous = TagSet.of(new HashSet<>(Arrays.asList(tag("unchanged", "1"), tag("changed", "old"), tag("removed", "x"))));
+        final TagSet desired = TagSet.of(new HashSet<>(Arrays.asList(tag("unchanged", "1"), tag("changed", "new"), tag("added", "y"))));
+
+        assertThat(desired.changedFrom(previous).asMap()).containsExactly(entry("added", "y"), entry("changed", "new"));
+        assertThat(previous.keysMissingFrom(desired)).containsExactly("removed");
+        assertThat(desired.changedFrom(desired).isEmpty()).isTrue();
+    }
+
+    @Test
+    public void testViewsConvertBackWithoutCopying() {
+        final TagSet tags = TagSet.of(new HashSet<>(Arrays.asList(tag("a", "1"), tag("b", "2"))));
+        final Set<Tag> modelTags = tags.toModelTags();
+
+        assertThat(modelTags).containsExactlyInAnyOrder(tag("a", "1"), tag("b", "2"));
+        assertThat(modelTags).isEqualTo(new HashSet<>(Arrays.asList(tag("a", "1"), tag("b", "2"))));
+        assertThat(TagSet.of(modelTags)).isSameAs(tags);
+        assertThat(TagSet.of(tags.asMap())).isSameAs(tags);
+        assertThat(tags.toSdkTags()).extracting(com.amazonaws.services.route53resolver.model.Tag::getKey).containsExactly("a", "b");
+    }
+
+    @Test
+    public void testViewsAreReadOnly() {
+        final TagSet tags = TagSet.of(new HashSet<>(Arrays.asList(tag("a", "1"))));
+
+        assertThatThrownBy(() -> tags.toModelTags().add(tag("b", "2"))).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> tags.asMap().put("b", "2")).isInstanceOf(UnsupportedOperationException.class);
+        assertThat(tags.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void testChunks() {
+        final Map<String, String> map = new LinkedHashMap<>();
+        for (int i = 0; i < 401; i++) {
+            map.put("key-" + i, "value");
+        }
+
+        assertThat(TagSet.of(map).chunks(200)).extracting(TagSet::size).containsExactly(200, 200, 1);
+        assertThat(TagSet.EMPTY.chunks(200)).isEmpty();
+    }
+
+    private static Tag tag(final String key, final String value) {
+        return Tag.builder().key(key).value(value).build();
+    }
+}
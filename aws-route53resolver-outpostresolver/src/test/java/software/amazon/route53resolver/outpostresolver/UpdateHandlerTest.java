@@ -46,7 +46,7 @@ public class UpdateHandlerTest {
     @BeforeEach
     public void setup() {
         proxy = mock(AmazonWebServicesClientProxy.class);
-        client = new ClientBuilder().getClient();
+        client = ClientBuilder.getClient();
         logger = mock(Logger.class);
         handler = new UpdateHandler();
         model = ResourceModel.builder().id("rslvr-op-123").outpostArn("op-111").build();
@@ -128,6 +128,36 @@ public class UpdateHandlerTest {
     }
 
 
+    @Test
+    public void updateToOperationalInSingleInvocation() {
+        handler = new UpdateHandler((status, instanceCount, callbackContext) -> 0, new InvocationPoller(true, 0L));
+
+        UpdateOutpostResolverResult updateResponse = new UpdateOutpostResolverResult().withOutpostResolver(
+                new OutpostResolver().withId("rslvr-op-123").withOutpostArn("op-111").withStatus(OutpostResolverStatus.UPDATING.toString()));
+
+        GetOutpostResolverResult updatingResponse = new GetOutpostResolverResult().withOutpostResolver(
+                new OutpostResolver().withId("rslvr-op-123").withOutpostArn("op-111").withArn("arn-123").withStatus(OutpostResolverStatus.UPDATING.toString()));
+
+        GetOutpostResolverResult operationalResponse = new GetOutpostResolverResult().withOutpostResolver(
+                new OutpostResolver().withId("rslvr-op-123").withOutpostArn("op-111").withArn("arn-123").withStatus(OutpostResolverStatus.OPERATIONAL.toString()));
+
+        lenient().when(proxy.injectCredentialsAndInvoke(any(UpdateOutpostResolverRequest.class), any(Function.class)))
+                .thenReturn(updateResponse);
+        lenient().when(proxy.injectCredentialsAndInvoke(any(GetOutpostResolverRequest.class), any(Function.class)))
+                .thenReturn(updatingResponse)
+                .thenReturn(operationalResponse);
+        lenient().when(proxy.injectCredentialsAndInvoke(any(ListTagsForResourceRequest.class), any(Function.class)))
+                .thenReturn(listTagResponse);
+
+        final ProgressEvent<ResourceModel, CallbackContext> response
+                = handler.handleRequest(proxy, request, context, logger);
+
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel().getStatus()).isEqualTo(OutpostResolverStatus.OPERATIONAL.toString());
+        assertThat(response.getCallbackContext().isMutationStabilized()).isTrue();
+    }
+
     @Test
     public void updateOutpostArn() {
         ResourceModel desiredModel = ResourceModel.builder().id("rslvr-op-123").outpostArn("op-222").build();
@@ -145,6 +175,24 @@ public class UpdateHandlerTest {
         }
     }
 
+    @Test
+    public void testResumedTagReadOfVanishedResolverFailsNotFound() {
+        context = CallbackContext.builder()
+                .mutationStarted(true)
+                .mutationStabilized(true)
+                .outpostResolverId("rslvr-op-123")
+                .tagsNextToken("tags-2")
+                .build();
+        when(proxy.injectCredentialsAndInvoke(any(GetOutpostResolverRequest.class), any(Function.class)))
+                .thenReturn(new GetOutpostResolverResult());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response
+                = handler.handleRequest(proxy, request, context, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.NotFound);
+    }
+
     @Test
     public void testUpdateNonExistentOutpostResolver() {
         model = ResourceModel.builder().build();
@@ -193,6 +241,30 @@ public class UpdateHandlerTest {
         verify(proxy, times(1)).injectCredentialsAndInvoke(argThat(new UnTagResourceMatcher(untagRequest)), any(Function.class));
     }
 
+    @Test
+    public void testTagResourceUsesObservedArn() {
+        ResourceHandlerRequest<ResourceModel> request = new ResourceHandlerRequest<ResourceModel>();
+        request.setPreviousResourceTags(new HashMap<String, String>() {{
+            put("previousKey1", "value1");
+        }});
+        request.setDesiredResourceTags(new HashMap<String, String>() {{
+            put("desiredKey1", "value1");
+        }});
+        request.setDesiredResourceState(ResourceModel.builder().id("rslvr-op-123").build());
+        request.setPreviousResourceState(ResourceModel.builder().id("rslvr-op-123").build());
+        context.setOutpostResolverArn("arn-123");
+
+        handler.tagResource(request, new ResolverApiInvoker(proxy), client, context, request.getDesiredResourceState(), request.getPreviousResourceState());
+
+        Tag reqTag = new Tag().withKey("desiredKey1").withValue("value1");
+        TagResourceRequest tagRequest = new TagResourceRequest().withResourceArn("arn-123").withTags(reqTag);
+        UntagResourceRequest untagRequest = new UntagResourceRequest().withResourceArn("arn-123").withTagKeys(Arrays.asList("previousKey1"));
+
+        verify(proxy, never()).injectCredentialsAndInvoke(any(GetOutpostResolverRequest.class), any(Function.class));
+        verify(proxy, times(1)).injectCredentialsAndInvoke(argThat(new TagResourceMatcher(tagRequest)), any(Function.class));
+        verify(proxy, times(1)).injectCredentialsAndInvoke(argThat(new UnTagResourceMatcher(untagRequest)), any(Function.class));
+    }
+
     @Test
     public void testUpdateToFail() {
         UpdateOutpostResolverResult updateResponse = new UpdateOutpostResolverResult().withOutpostResolver(
@@ -0,0 +1,27 @@
+package software.amazon.route53resolver.outpostresolver.simulator;
+
+import java.util.Random;
+
+//How long a simulated call takes, drawn from the simulator's seeded Random so runs can be replayed.
+@FunctionalInterface
+public interface LatencyDistribution {
+
+    long sampleMillis(Random random);
+
+    static LatencyDistribution none() {
+        return random -> 0L;
+    }
+
+    static LatencyDistribution fixed(final long millis) {
+        return random -> millis;
+    }
+
+    static LatencyDistribution uniform(final long minMillis, final long maxMillis) {
+        return random -> minMillis + (long) (random.nextDouble() * (maxMillis - minMillis));
+    }
+
+    //service latencies are long tailed, a log-normal around the median with the given spread is a fair stand-in
+    static LatencyDistribution logNormal(final long medianMillis, final double sigma) {
+        return random -> Math.round(medianMillis * Math.exp(sigma * random.nextGaussian()));
+    }
+}
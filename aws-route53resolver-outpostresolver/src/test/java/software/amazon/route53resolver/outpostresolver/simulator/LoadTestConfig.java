@@ -0,0 +1,42 @@
+package software.amazon.route53resolver.outpostresolver.simulator;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class LoadTestConfig {
+
+    //each stack runs one Create -> Update -> Delete lifecycle
+    @Builder.Default
+    int stacks = 1_000;
+
+    //worker threads playing CloudFormation, which caps how many handler invocations run at once
+    @Builder.Default
+    int concurrency = 64;
+
+    //resolvers are spread round robin over this many outposts
+    @Builder.Default
+    int outposts = 20;
+
+    @Builder.Default
+    int tagsPerStack = 10;
+
+    //simulated milliseconds per real millisecond, applied to API latency, lifecycle timing and callback delays.
+    //Handler CPU time and retry backoff are not scaled, so very large scales inflate the simulated latencies.
+    @Builder.Default
+    double timeScale = 100.0;
+
+    @Builder.Default
+    long apiLatencyMedianMillis = 40L;
+
+    @Builder.Default
+    double throttleRate = 0.0;
+
+    @Builder.Default
+    long seed = 42L;
+
+    //wall-clock limit for the whole run, stacks still in flight afterwards are counted as unfinished
+    @Builder.Default
+    long timeoutMillis = 600_000L;
+}
@@ -0,0 +1,278 @@
+package software.amazon.route53resolver.outpostresolver.simulator;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import software.amazon.cloudformation.exceptions.CfnThrottlingException;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.cloudformation.resource.Serializer;
+import software.amazon.route53resolver.outpostresolver.CallbackContext;
+import software.amazon.route53resolver.outpostresolver.CreateHandler;
+import software.amazon.route53resolver.outpostresolver.DeleteHandler;
+import software.amazon.route53resolver.outpostresolver.ExponentialBackoffPollingPolicy;
+import software.amazon.route53resolver.outpostresolver.InvocationPoller;
+import software.amazon.route53resolver.outpostresolver.ResourceModel;
+import software.amazon.route53resolver.outpostresolver.Tag;
+import software.amazon.route53resolver.outpostresolver.UpdateHandler;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+//Plays CloudFormation for many stacks at once: every stack runs Create -> Update -> Delete through the handlers
+//against a SimulatedRoute53Resolver. Between invocations the CallbackContext and the models travel as JSON, the way
+//the wrapper receives them, and the next invocation is scheduled after callbackDelaySeconds on a ScaledClock.
+//
+//  mvn test-compile exec:java -Dexec.classpathScope=test \
+//      -Dexec.mainClass=software.amazon.route53resolver.outpostresolver.simulator.LoadTestHarness \
+//      -Dexec.args="--stacks=5000 --concurrency=128 --throttleRate=0.02"
+public class LoadTestHarness {
+
+    private static final Logger LOGGER = message -> { };
+    private static final TypeReference<CallbackContext> CONTEXT_TYPE = new TypeReference<CallbackContext>() { };
+    private static final TypeReference<ResourceModel> MODEL_TYPE = new TypeReference<ResourceModel>() { };
+    //CloudFormation backs off before re-invoking a handler that reported throttling
+    private static final long THROTTLE_RETRY_MILLIS = 5_000L;
+
+    private enum Phase { CREATE, UPDATE, DELETE }
+
+    private final LoadTestConfig config;
+    private final ScaledClock clock;
+    private final SimulatedRoute53Resolver simulator;
+    private final PassThroughClientProxy proxy = new PassThroughClientProxy();
+    private final Serializer serializer = new Serializer();
+    private final CreateHandler createHandler;
+    private final UpdateHandler updateHandler;
+    private final DeleteHandler deleteHandler;
+
+    private final Map<Phase, List<Long>> phaseLatencies = new LinkedHashMap<>();
+    private final List<Long> lifecycleLatencies = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger succeeded = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicLong invocations = new AtomicLong();
+    private final AtomicLong handlerThrottles = new AtomicLong();
+    private final Map<String, Long> failures = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService scheduler;
+    private CountDownLatch finished;
+
+    public LoadTestHarness(final LoadTestConfig config) {
+        this.config = config;
+        this.clock = new ScaledClock(System.currentTimeMillis(), config.getTimeScale());
+        this.simulator = new SimulatedRoute53Resolver(SimulatorConfig.builder()
+                .seed(config.getSeed())
+                .defaultLatency(LatencyDistribution.logNormal(config.getApiLatencyMedianMillis(), 0.5))
+                .defaultThrottleRate(config.getThrottleRate())
+                .clock(clock)
+                .sleeper(clock)
+                .build());
+        //the harness is the one scheduling callbacks, polling inside an invocation would hide them
+        final InvocationPoller poller = new InvocationPoller(false, 0L);
+        this.createHandler = new CreateHandler(new ExponentialBackoffPollingPolicy(), poller);
+        this.updateHandler = new UpdateHandler(new ExponentialBackoffPollingPolicy(), poller);
+        this.deleteHandler = new DeleteHandler(new ExponentialBackoffPollingPolicy(), poller);
+        for (Phase phase : Phase.values()) {
+            phaseLatencies.put(phase, Collections.synchronizedList(new ArrayList<>()));
+        }
+    }
+
+    public static void main(final String[] args) throws InterruptedException {
+        final LoadTestConfig.LoadTestConfigBuilder config = LoadTestConfig.builder();
+        for (String arg : args) {
+            final String[] option = arg.replaceFirst("^--", "").split("=", 2);
+            if (option.length != 2) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            switch (option[0]) {
+                case "stacks": config.stacks(Integer.parseInt(option[1])); break;
+                case "concurrency": config.concurrency(Integer.parseInt(option[1])); break;
+                case "outposts": config.outposts(Integer.parseInt(option[1])); break;
+                case "tagsPerStack": config.tagsPerStack(Integer.parseInt(option[1])); break;
+                case "timeScale": config.timeScale(Double.parseDouble(option[1])); break;
+                case "apiLatencyMedianMillis": config.apiLatencyMedianMillis(Long.parseLong(option[1])); break;
+                case "throttleRate": config.throttleRate(Double.parseDouble(option[1])); break;
+                case "seed": config.seed(Long.parseLong(option[1])); break;
+                case "timeoutMillis": config.timeoutMillis(Long.parseLong(option[1])); break;
+                default: throw new IllegalArgumentException("Unknown option " + option[0]);
+            }
+        }
+        System.out.print(new LoadTestHarness(config.build()).run().summary());
+    }
+
+    public LoadTestReport run() throws InterruptedException {
+        scheduler = Executors.newScheduledThreadPool(config.getConcurrency());
+        finished = new CountDownLatch(config.getStacks());
+        final long start = System.currentTimeMillis();
+        try {
+            for (int i = 0; i < config.getStacks(); i++) {
+                final StackLifecycle stack = new StackLifecycle(i);
+                scheduler.execute(stack::invoke);
+            }
+            finished.await(config.getTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } finally {
+            scheduler.shutdownNow();
+        }
+        final long wallMillis = System.currentTimeMillis() - start;
+        return LoadTestReport.builder()
+                .stacks(config.getStacks())
+                .succeeded(succeeded.get())
+                .failed(failed.get())
+                .unfinished(config.getStacks() - succeeded.get() - failed.get())
+                .wallMillis(wallMillis)
+                .invocations(invocations.get())
+                .handlerThrottles(handlerThrottles.get())
+                .serviceThrottles(simulator.getTotalThrottleCount())
+                .apiCalls(simulator.getCallCounts())
+                .failures(new TreeMap<>(failures))
+                .create(LoadTestReport.LatencySummary.of(phaseLatencies.get(Phase.CREATE)))
+                .update(LoadTestReport.LatencySummary.of(phaseLatencies.get(Phase.UPDATE)))
+                .delete(LoadTestReport.LatencySummary.of(phaseLatencies.get(Phase.DELETE)))
+                .lifecycle(LoadTestReport.LatencySummary.of(lifecycleLatencies))
+                .build();
+    }
+
+    private class StackLifecycle {
+        private final int index;
+        private final Map<String, String> stackTags = new LinkedHashMap<>();
+        private final long lifecycleStart = clock.getAsLong();
+        private Phase phase = Phase.CREATE;
+        private long phaseStart = lifecycleStart;
+        //what CloudFormation would send: models and context as JSON, deserialized fresh for every invocation
+        private String desiredModel;
+        private String previousModel;
+        private String context;
+
+        private StackLifecycle(final int index) {
+            this.index = index;
+            stackTags.put("StackName", "stack-" + index);
+            desiredModel = serialize(ResourceModel.builder()
+                    .name("resolver-" + index)
+                    .outpostArn(String.format("arn:aws:outposts:us-west-2:123456789012:outpost/op-%017d", index % Math.max(1, config.getOutposts())))
+                    .instanceCount(4)
+                    .preferredInstanceType("m5.large")
+                    .tags(tags("create", config.getTagsPerStack()))
+                    .build());
+        }
+
+        private void invoke() {
+            invocations.incrementAndGet();
+            final ProgressEvent<ResourceModel, CallbackContext> event;
+            try {
+                final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                        .desiredResourceState(deserialize(desiredModel, MODEL_TYPE))
+                        .previousResourceState(previousModel == null ? null : deserialize(previousModel, MODEL_TYPE))
+                        .desiredResourceTags(stackTags)
+                        .previousResourceTags(stackTags)
+                        .clientRequestToken(String.format("stack-%d-%s", index, phase))
+                        .build();
+                final CallbackContext callbackContext = context == null ? null : deserialize(context, CONTEXT_TYPE);
+                event = handle(request, callbackContext);
+            } catch (CfnThrottlingException e) {
+                handlerThrottles.incrementAndGet();
+                schedule(THROTTLE_RETRY_MILLIS);
+                return;
+            } catch (RuntimeException e) {
+                fail(phase + " " + e.getClass().getSimpleName());
+                return;
+            }
+
+            if (event.isInProgress()) {
+                context = serialize(event.getCallbackContext());
+                schedule(event.getCallbackDelaySeconds() * 1000L);
+            } else if (event.isSuccess()) {
+                phaseLatencies.get(phase).add(clock.getAsLong() - phaseStart);
+                nextPhase(event.getResourceModel());
+            } else {
+                fail(phase + " " + event.getErrorCode());
+            }
+        }
+
+        private ProgressEvent<ResourceModel, CallbackContext> handle(final ResourceHandlerRequest<ResourceModel> request,
+                                                                    final CallbackContext callbackContext) {
+            switch (phase) {
+                case CREATE:
+                    return createHandler.doHandleRequest(proxy, request, callbackContext, LOGGER, simulator);
+                case UPDATE:
+                    return updateHandler.doHandleRequest(proxy, request, callbackContext, LOGGER, simulator);
+                default:
+                    return deleteHandler.doHandleRequest(proxy, request, callbackContext, LOGGER, simulator);
+            }
+        }
+
+        private void nextPhase(final ResourceModel result) {
+            context = null;
+            phaseStart = clock.getAsLong();
+            switch (phase) {
+                case CREATE:
+                    phase = Phase.UPDATE;
+                    previousModel = serialize(result);
+                    result.setInstanceCount(result.getInstanceCount() + 2);
+                    result.setTags(tags("update", config.getTagsPerStack()));
+                    desiredModel = serialize(result);
+                    break;
+                case UPDATE:
+                    phase = Phase.DELETE;
+                    previousModel = null;
+                    desiredModel = serialize(result);
+                    break;
+                default:
+                    lifecycleLatencies.add(clock.getAsLong() - lifecycleStart);
+                    finish(true);
+                    return;
+            }
+            scheduler.execute(this::invoke);
+        }
+
+        private void schedule(final long simulatedDelayMillis) {
+            scheduler.schedule(this::invoke, clock.toRealNanos(simulatedDelayMillis), TimeUnit.NANOSECONDS);
+        }
+
+        private void fail(final String reason) {
+            failures.merge(reason, 1L, Long::sum);
+            finish(false);
+        }
+
+        private void finish(final boolean success) {
+            (success ? succeeded : failed).incrementAndGet();
+            finished.countDown();
+        }
+    }
+
+    private static Set<Tag> tags(final String prefix, final int count) {
+        final Set<Tag> tags = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            tags.add(Tag.builder().key(prefix + "-" + i).value("value-" + i).build());
+        }
+        return tags;
+    }
+
+    private <T> String serialize(final T value) {
+        try {
+            return serializer.serialize(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <T> T deserialize(final String json, final TypeReference<T> type) {
+        try {
+            return serializer.deserialize(json, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package software.amazon.route53resolver.outpostresolver.simulator;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LoadTestHarnessTest {
+
+    @Test
+    public void testLifecyclesComplete() throws InterruptedException {
+        final LoadTestReport report = new LoadTestHarness(LoadTestConfig.builder()
+                .stacks(20)
+                .concurrency(4)
+                .outposts(3)
+                .timeScale(20_000.0)
+                .apiLatencyMedianMillis(20L)
+                .timeoutMillis(60_000L)
+                .build()).run();
+
+        assertThat(report.getSucceeded()).isEqualTo(20);
+        assertThat(report.getFailed()).isZero();
+        assertThat(report.getFailures()).isEmpty();
+        assertThat(report.getApiCalls().get("CreateOutpostResolver")).isEqualTo(20L);
+        assertThat(report.getApiCalls().get("DeleteOutpostResolver")).isEqualTo(20L);
+        //every step needs at least one poll after the mutation
+        assertThat(report.getInvocations()).isGreaterThanOrEqualTo(60L * 2);
+        assertThat(report.getCreate().getCount()).isEqualTo(20);
+        assertThat(report.getLifecycle().getP50()).isGreaterThan(report.getCreate().getP50());
+        assertThat(report.summary()).contains("succeeded=20");
+    }
+}
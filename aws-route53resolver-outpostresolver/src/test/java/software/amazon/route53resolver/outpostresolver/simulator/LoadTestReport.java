@@ -0,0 +1,87 @@
+package software.amazon.route53resolver.outpostresolver.simulator;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+@Value
+@Builder
+public class LoadTestReport {
+
+    int stacks;
+    int succeeded;
+    int failed;
+    int unfinished;
+    long wallMillis;
+    long invocations;
+    //CfnThrottlingException surfaced by a handler, CloudFormation re-invokes the same step after a pause
+    long handlerThrottles;
+    //ThrottlingException returned by the simulator, most are absorbed by the retry engine
+    long serviceThrottles;
+    Map<String, Long> apiCalls;
+    //failed lifecycles by step and exception or error code
+    Map<String, Long> failures;
+    //stabilization latency in simulated time, from the first invocation of a step until it stops reporting IN_PROGRESS
+    LatencySummary create;
+    LatencySummary update;
+    LatencySummary delete;
+    LatencySummary lifecycle;
+
+    public double getLifecyclesPerSecond() {
+        return wallMillis == 0 ? 0.0 : succeeded * 1000.0 / wallMillis;
+    }
+
+    public double getApiCallsPerLifecycle() {
+        final long total = apiCalls.values().stream().mapToLong(Long::longValue).sum();
+        return stacks == 0 ? 0.0 : (double) total / stacks;
+    }
+
+    public String summary() {
+        final StringBuilder summary = new StringBuilder()
+                .append(String.format("stacks=%d succeeded=%d failed=%d unfinished=%d wall=%d ms throughput=%.1f lifecycles/s%n",
+                        stacks, succeeded, failed, unfinished, wallMillis, getLifecyclesPerSecond()))
+                .append(String.format("invocations=%d handlerThrottles=%d serviceThrottles=%d apiCallsPerLifecycle=%.1f%n",
+                        invocations, handlerThrottles, serviceThrottles, getApiCallsPerLifecycle()))
+                .append(String.format("create    %s%n", create))
+                .append(String.format("update    %s%n", update))
+                .append(String.format("delete    %s%n", delete))
+                .append(String.format("lifecycle %s%n", lifecycle));
+        apiCalls.forEach((operation, count) -> summary.append(String.format("%-24s %d%n", operation, count)));
+        failures.forEach((reason, count) -> summary.append(String.format("failed %-34s %d%n", reason, count)));
+        return summary.toString();
+    }
+
+    @Value
+    public static class LatencySummary {
+        int count;
+        long p50;
+        long p90;
+        long p99;
+        long max;
+
+        public static LatencySummary of(final List<Long> latencies) {
+            final List<Long> sorted = new ArrayList<>(latencies);
+            Collections.sort(sorted);
+            return new LatencySummary(sorted.size(), percentile(sorted, 0.50), percentile(sorted, 0.90),
+                    percentile(sorted, 0.99), sorted.isEmpty() ? 0L : sorted.get(sorted.size() - 1));
+        }
+
+        //nearest rank
+        private static long percentile(final List<Long> sorted, final double percentile) {
+            if (sorted.isEmpty()) {
+                return 0L;
+            }
+            final int rank = (int) Math.ceil(percentile * sorted.size());
+            return sorted.get(Math.max(0, rank - 1));
+        }
+
+        @Override
+        public String toString() {
+            return String.format("n=%d p50=%d ms p90=%d ms p99=%d ms max=%d ms", count, p50, p90, p99, max);
+        }
+    }
+}
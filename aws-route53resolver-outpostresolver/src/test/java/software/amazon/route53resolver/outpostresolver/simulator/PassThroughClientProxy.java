@@ -0,0 +1,26 @@
+package software.amazon.route53resolver.outpostresolver.simulator;
+
+import com.amazonaws.AmazonWebServiceRequest;
+import com.amazonaws.AmazonWebServiceResult;
+import com.amazonaws.ResponseMetadata;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.Credentials;
+import software.amazon.cloudformation.proxy.LoggerProxy;
+
+import java.util.function.Function;
+
+//Hands the request straight to the client, for driving the handlers against a simulated or stub client
+//without credential injection or a mocking framework in the way.
+public class PassThroughClientProxy extends AmazonWebServicesClientProxy {
+
+    public PassThroughClientProxy() {
+        super(new LoggerProxy(), new Credentials("accessKeyId", "secretAccessKey", "sessionToken"), () -> Long.MAX_VALUE);
+    }
+
+    @Override
+    public <RequestT extends AmazonWebServiceRequest, ResultT extends AmazonWebServiceResult<ResponseMetadata>> ResultT injectCredentialsAndInvoke(
+            final RequestT request,
+            final Function<RequestT, ResultT> requestFunction) {
+        return requestFunction.apply(request);
+    }
+}
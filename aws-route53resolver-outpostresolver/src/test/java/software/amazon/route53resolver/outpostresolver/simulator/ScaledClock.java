@@ -0,0 +1,40 @@
+package software.amazon.route53resolver.outpostresolver.simulator;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+
+//Real time sped up by a fixed factor, so many threads can share one clock: with a scale of 1000 a two minute
+//create settles after 120 ms and a 10 second callback delay is a 10 ms wait. Sleeping on it parks the thread for
+//the scaled duration.
+public class ScaledClock implements LongSupplier, LongConsumer {
+
+    private final long startMillis;
+    private final long startNanos;
+    private final double timeScale;
+
+    public ScaledClock(final long startMillis, final double timeScale) {
+        this.startMillis = startMillis;
+        this.startNanos = System.nanoTime();
+        this.timeScale = Math.max(1.0, timeScale);
+    }
+
+    @Override
+    public long getAsLong() {
+        return startMillis + (long) ((System.nanoTime() - startNanos) / 1_000_000.0 * timeScale);
+    }
+
+    @Override
+    public void accept(final long simulatedMillis) {
+        final long deadline = System.nanoTime() + toRealNanos(simulatedMillis);
+        long remaining;
+        //parkNanos may return early, keep parking until the deadline
+        while ((remaining = deadline - System.nanoTime()) > 0 && !Thread.currentThread().isInterrupted()) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    public long toRealNanos(final long simulatedMillis) {
+        return (long) (Math.max(0L, simulatedMillis) * 1_000_000.0 / timeScale);
+    }
+}
@@ -0,0 +1,31 @@
+package software.amazon.route53resolver.outpostresolver.simulator;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+
+//Virtual time for the simulator: call latency and callback delays advance the clock instead of sleeping,
+//so a lifecycle that takes minutes in the service runs in milliseconds.
+public class SimulatedClock implements LongSupplier, LongConsumer {
+
+    private final AtomicLong now;
+
+    public SimulatedClock(final long startMillis) {
+        this.now = new AtomicLong(startMillis);
+    }
+
+    @Override
+    public long getAsLong() {
+        return now.get();
+    }
+
+    //sleeping on a simulated clock just moves it forward
+    @Override
+    public void accept(final long millis) {
+        advance(millis);
+    }
+
+    public long advance(final long millis) {
+        return now.addAndGet(Math.max(0L, millis));
+    }
+}
@@ -0,0 +1,363 @@
+package software.amazon.route53resolver.outpostresolver.simulator;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.route53resolver.AbstractAmazonRoute53Resolver;
+import com.amazonaws.services.route53resolver.model.ConflictException;
+import com.amazonaws.services.route53resolver.model.CreateOutpostResolverRequest;
+import com.amazonaws.services.route53resolver.model.CreateOutpostResolverResult;
+import com.amazonaws.services.route53resolver.model.DeleteOutpostResolverRequest;
+import com.amazonaws.services.route53resolver.model.DeleteOutpostResolverResult;
+import com.amazonaws.services.route53resolver.model.GetOutpostResolverRequest;
+import com.amazonaws.services.route53resolver.model.GetOutpostResolverResult;
+import com.amazonaws.services.route53resolver.model.InvalidNextTokenException;
+import com.amazonaws.services.route53resolver.model.InvalidParameterException;
+import com.amazonaws.services.route53resolver.model.ListOutpostResolversRequest;
+import com.amazonaws.services.route53resolver.model.ListOutpostResolversResult;
+import com.amazonaws.services.route53resolver.model.ListResolverEndpointsRequest;
+import com.amazonaws.services.route53resolver.model.ListResolverEndpointsResult;
+import com.amazonaws.services.route53resolver.model.ListTagsForResourceRequest;
+import com.amazonaws.services.route53resolver.model.ListTagsForResourceResult;
+import com.amazonaws.services.route53resolver.model.OutpostResolver;
+import com.amazonaws.services.route53resolver.model.OutpostResolverStatus;
+import com.amazonaws.services.route53resolver.model.ResourceNotFoundException;
+import com.amazonaws.services.route53resolver.model.Tag;
+import com.amazonaws.services.route53resolver.model.TagResourceRequest;
+import com.amazonaws.services.route53resolver.model.TagResourceResult;
+import com.amazonaws.services.route53resolver.model.ThrottlingException;
+import com.amazonaws.services.route53resolver.model.UntagResourceRequest;
+import com.amazonaws.services.route53resolver.model.UntagResourceResult;
+import com.amazonaws.services.route53resolver.model.UpdateOutpostResolverRequest;
+import com.amazonaws.services.route53resolver.model.UpdateOutpostResolverResult;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+//In-memory stand-in for the OutpostResolver APIs. Resolvers move through the service lifecycle on the configured
+//clock: CREATING settles on OPERATIONAL, ACTION_NEEDED or FAILED_CREATION, UPDATING settles on OPERATIONAL and
+//DELETING ends with the resolver gone or in FAILED_DELETION. Every call first pays its sampled latency and may be
+//throttled, and the simulator counts calls and throttles per operation.
+public class SimulatedRoute53Resolver extends AbstractAmazonRoute53Resolver {
+
+    private static final int MAX_TAGS_PER_CALL = 200;
+
+    private final SimulatorConfig config;
+    private final Random random;
+    private final ConcurrentMap<String, SimulatedOutpostResolver> resolvers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AtomicLong> calls = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AtomicLong> throttles = new ConcurrentHashMap<>();
+
+    public SimulatedRoute53Resolver(final SimulatorConfig config) {
+        this.config = config;
+        this.random = new Random(config.getSeed());
+    }
+
+    private static class SimulatedOutpostResolver {
+        private final OutpostResolver resolver;
+        private final Map<String, String> tags = new TreeMap<>();
+        private String targetStatus;
+        private long transitionEnd;
+        private boolean deleteOnSettle;
+
+        private SimulatedOutpostResolver(final OutpostResolver resolver) {
+            this.resolver = resolver;
+        }
+    }
+
+    @Override
+    public CreateOutpostResolverResult createOutpostResolver(final CreateOutpostResolverRequest request) {
+        simulateCall("CreateOutpostResolver");
+        validateTagCount(request.getTags());
+        synchronized (this) {
+            //CreatorRequestId makes the create idempotent, a retried request gets the resolver it already made
+            for (SimulatedOutpostResolver existing : resolvers.values()) {
+                if (request.getCreatorRequestId() != null && request.getCreatorRequestId().equals(existing.resolver.getCreatorRequestId())) {
+                    return new CreateOutpostResolverResult().withOutpostResolver(snapshot(existing));
+                }
+            }
+            final String id = String.format("rslvr-or-%017x", random.nextLong() & 0xfffffffffffffffL);
+            final String now = timestamp();
+            final SimulatedOutpostResolver created = new SimulatedOutpostResolver(new OutpostResolver()
+                    .withId(id)
+                    .withArn(String.format("arn:aws:route53resolver:%s:%s:outpost-resolver/%s", config.getRegion(), config.getAccountId(), id))
+                    .withOutpostArn(request.getOutpostArn())
+                    .withName(request.getName())
+                    .withInstanceCount(request.getInstanceCount())
+                    .withPreferredInstanceType(request.getPreferredInstanceType())
+                    .withCreatorRequestId(request.getCreatorRequestId())
+                    .withCreationTime(now)
+                    .withModificationTime(now));
+            putTags(created, request.getTags());
+            final double outcome = random.nextDouble();
+            startTransition(created, OutpostResolverStatus.CREATING, outcome < config.getFailedCreationRate() ? OutpostResolverStatus.FAILED_CREATION
+                    : outcome < config.getFailedCreationRate() + config.getActionNeededRate() ? OutpostResolverStatus.ACTION_NEEDED
+                    : OutpostResolverStatus.OPERATIONAL, config.getCreateMillis());
+            resolvers.put(id, created);
+            return new CreateOutpostResolverResult().withOutpostResolver(snapshot(created));
+        }
+    }
+
+    @Override
+    public GetOutpostResolverResult getOutpostResolver(final GetOutpostResolverRequest request) {
+        simulateCall("GetOutpostResolver");
+        synchronized (this) {
+            return new GetOutpostResolverResult().withOutpostResolver(snapshot(find(request.getId())));
+        }
+    }
+
+    @Override
+    public UpdateOutpostResolverResult updateOutpostResolver(final UpdateOutpostResolverRequest request) {
+        simulateCall("UpdateOutpostResolver");
+        synchronized (this) {
+            final SimulatedOutpostResolver existing = find(request.getId());
+            requireSettled(existing);
+            existing.resolver
+                    .withName(request.getName() == null ? existing.resolver.getName() : request.getName())
+                    .withInstanceCount(request.getInstanceCount() == null ? existing.resolver.getInstanceCount() : request.getInstanceCount())
+                    .withPreferredInstanceType(request.getPreferredInstanceType() == null
+                            ? existing.resolver.getPreferredInstanceType() : request.getPreferredInstanceType())
+                    .withModificationTime(timestamp());
+            startTransition(existing, OutpostResolverStatus.UPDATING, OutpostResolverStatus.OPERATIONAL, config.getUpdateMillis());
+            return new UpdateOutpostResolverResult().withOutpostResolver(snapshot(existing));
+        }
+    }
+
+    @Override
+    public DeleteOutpostResolverResult deleteOutpostResolver(final DeleteOutpostResolverRequest request) {
+        simulateCall("DeleteOutpostResolver");
+        synchronized (this) {
+            final SimulatedOutpostResolver existing = find(request.getId());
+            if (OutpostResolverStatus.DELETING.toString().equals(existing.resolver.getStatus())) {
+                throw serviceException(new ConflictException("OutpostResolver " + existing.resolver.getId() + " is already being deleted"));
+            }
+            final boolean fails = random.nextDouble() < config.getFailedDeletionRate();
+            startTransition(existing, OutpostResolverStatus.DELETING,
+                    fails ? OutpostResolverStatus.FAILED_DELETION : OutpostResolverStatus.DELETING, config.getDeleteMillis());
+            existing.deleteOnSettle = !fails;
+            return new DeleteOutpostResolverResult().withOutpostResolver(snapshot(existing));
+        }
+    }
+
+    @Override
+    public ListOutpostResolversResult listOutpostResolvers(final ListOutpostResolversRequest request) {
+        simulateCall("ListOutpostResolvers");
+        synchronized (this) {
+            settleAll();
+            final List<OutpostResolver> matching = new ArrayList<>();
+            for (SimulatedOutpostResolver simulated : new TreeMap<>(resolvers).values()) {
+                if (request.getOutpostArn() == null || request.getOutpostArn().equals(simulated.resolver.getOutpostArn())) {
+                    matching.add(simulated.resolver.clone());
+                }
+            }
+            final int pageSize = request.getMaxResults() == null ? 100 : request.getMaxResults();
+            final int from = offset(request.getNextToken(), matching.size());
+            final int to = Math.min(matching.size(), from + pageSize);
+            return new ListOutpostResolversResult()
+                    .withOutpostResolvers(matching.subList(from, to))
+                    .withNextToken(to < matching.size() ? String.valueOf(to) : null);
+        }
+    }
+
+    //the simulated account has no resolver endpoints, so Delete's dependency scan always comes back empty
+    @Override
+    public ListResolverEndpointsResult listResolverEndpoints(final ListResolverEndpointsRequest request) {
+        simulateCall("ListResolverEndpoints");
+        return new ListResolverEndpointsResult().withResolverEndpoints(new ArrayList<>());
+    }
+
+    @Override
+    public ListTagsForResourceResult listTagsForResource(final ListTagsForResourceRequest request) {
+        simulateCall("ListTagsForResource");
+        synchronized (this) {
+            final List<Tag> tags = new ArrayList<>();
+            for (Map.Entry<String, String> tag : findByArn(request.getResourceArn()).tags.entrySet()) {
+                tags.add(new Tag().withKey(tag.getKey()).withValue(tag.getValue()));
+            }
+            final int pageSize = request.getMaxResults() == null ? config.getTagPageSize() : Math.min(config.getTagPageSize(), request.getMaxResults());
+            final int from = offset(request.getNextToken(), tags.size());
+            final int to = Math.min(tags.size(), from + pageSize);
+            return new ListTagsForResourceResult()
+                    .withTags(tags.subList(from, to))
+                    .withNextToken(to < tags.size() ? String.valueOf(to) : null);
+        }
+    }
+
+    @Override
+    public TagResourceResult tagResource(final TagResourceRequest request) {
+        simulateCall("TagResource");
+        validateTagCount(request.getTags());
+        synchronized (this) {
+            putTags(findByArn(request.getResourceArn()), request.getTags());
+            return new TagResourceResult();
+        }
+    }
+
+    @Override
+    public UntagResourceResult untagResource(final UntagResourceRequest request) {
+        simulateCall("UntagResource");
+        if (request.getTagKeys() != null && request.getTagKeys().size() > MAX_TAGS_PER_CALL) {
+            throw serviceException(new InvalidParameterException("At most " + MAX_TAGS_PER_CALL + " tag keys can be removed per call"));
+        }
+        synchronized (this) {
+            final SimulatedOutpostResolver existing = findByArn(request.getResourceArn());
+            if (request.getTagKeys() != null) {
+                request.getTagKeys().forEach(existing.tags::remove);
+            }
+            return new UntagResourceResult();
+        }
+    }
+
+    public long getCallCount(final String operation) {
+        final AtomicLong count = calls.get(operation);
+        return count == null ? 0L : count.get();
+    }
+
+    public long getTotalCallCount() {
+        return calls.values().stream().mapToLong(AtomicLong::get).sum();
+    }
+
+    public long getThrottleCount(final String operation) {
+        final AtomicLong count = throttles.get(operation);
+        return count == null ? 0L : count.get();
+    }
+
+    public long getTotalThrottleCount() {
+        return throttles.values().stream().mapToLong(AtomicLong::get).sum();
+    }
+
+    public Map<String, Long> getCallCounts() {
+        final Map<String, Long> counts = new TreeMap<>();
+        calls.forEach((operation, count) -> counts.put(operation, count.get()));
+        return counts;
+    }
+
+    public synchronized int getResolverCount() {
+        settleAll();
+        return resolvers.size();
+    }
+
+    //latency is paid outside the lock so concurrent callers overlap the way they would against the service
+    private void simulateCall(final String operation) {
+        calls.computeIfAbsent(operation, name -> new AtomicLong()).incrementAndGet();
+        final long latency;
+        final boolean throttled;
+        synchronized (random) {
+            latency = Math.max(0L, config.latencyOf(operation).sampleMillis(random));
+            throttled = random.nextDouble() < config.throttleRateOf(operation);
+        }
+        config.getSleeper().accept(latency);
+        if (throttled) {
+            throttles.computeIfAbsent(operation, name -> new AtomicLong()).incrementAndGet();
+            throw serviceException(new ThrottlingException("Rate exceeded"));
+        }
+    }
+
+    private void startTransition(final SimulatedOutpostResolver simulated, final OutpostResolverStatus status,
+                                 final OutpostResolverStatus target, final long durationMillis) {
+        simulated.resolver.setStatus(status.toString());
+        simulated.resolver.setStatusMessage(null);
+        simulated.targetStatus = target.toString();
+        simulated.transitionEnd = config.getClock().getAsLong() + durationMillis;
+        simulated.deleteOnSettle = false;
+    }
+
+    //applies any transition whose time is up, returns false if the resolver is now gone
+    private boolean settle(final SimulatedOutpostResolver simulated) {
+        if (simulated.targetStatus == null || config.getClock().getAsLong() < simulated.transitionEnd) {
+            return true;
+        }
+        if (simulated.deleteOnSettle) {
+            resolvers.remove(simulated.resolver.getId());
+            return false;
+        }
+        simulated.resolver.setStatus(simulated.targetStatus);
+        simulated.resolver.setModificationTime(timestamp());
+        if (!OutpostResolverStatus.OPERATIONAL.toString().equals(simulated.targetStatus)) {
+            simulated.resolver.setStatusMessage("Simulated " + simulated.targetStatus);
+        }
+        simulated.targetStatus = null;
+        return true;
+    }
+
+    private void settleAll() {
+        for (SimulatedOutpostResolver simulated : new ArrayList<>(resolvers.values())) {
+            settle(simulated);
+        }
+    }
+
+    private SimulatedOutpostResolver find(final String id) {
+        final SimulatedOutpostResolver simulated = id == null ? null : resolvers.get(id);
+        if (simulated == null || !settle(simulated)) {
+            throw serviceException(new ResourceNotFoundException("OutpostResolver " + id + " does not exist"));
+        }
+        return simulated;
+    }
+
+    private SimulatedOutpostResolver findByArn(final String arn) {
+        for (SimulatedOutpostResolver simulated : new ArrayList<>(resolvers.values())) {
+            if (simulated.resolver.getArn().equals(arn) && settle(simulated)) {
+                return simulated;
+            }
+        }
+        throw serviceException(new ResourceNotFoundException("Resource " + arn + " does not exist"));
+    }
+
+    private void requireSettled(final SimulatedOutpostResolver simulated) {
+        if (simulated.targetStatus != null) {
+            throw serviceException(new ConflictException(String.format("OutpostResolver %s is %s",
+                    simulated.resolver.getId(), simulated.resolver.getStatus())));
+        }
+    }
+
+    private static void putTags(final SimulatedOutpostResolver simulated, final Collection<Tag> tags) {
+        if (tags != null) {
+            for (Tag tag : tags) {
+                simulated.tags.put(tag.getKey(), tag.getValue());
+            }
+        }
+    }
+
+    private static void validateTagCount(final Collection<Tag> tags) {
+        if (tags != null && tags.size() > MAX_TAGS_PER_CALL) {
+            throw serviceException(new InvalidParameterException("At most " + MAX_TAGS_PER_CALL + " tags can be added per call"));
+        }
+    }
+
+    private static int offset(final String nextToken, final int size) {
+        if (nextToken == null) {
+            return 0;
+        }
+        try {
+            final int offset = Integer.parseInt(nextToken);
+            if (offset >= 0 && offset <= size) {
+                return offset;
+            }
+        } catch (NumberFormatException e) {
+            //reported below like any other token we did not hand out
+        }
+        throw serviceException(new InvalidNextTokenException("Invalid NextToken " + nextToken));
+    }
+
+    private static OutpostResolver snapshot(final SimulatedOutpostResolver simulated) {
+        return simulated.resolver.clone();
+    }
+
+    private String timestamp() {
+        return Instant.ofEpochMilli(config.getClock().getAsLong()).toString();
+    }
+
+    //fills in what the SDK would have parsed from the error response
+    private static <T extends AmazonServiceException> T serviceException(final T exception) {
+        exception.setErrorCode(exception.getClass().getSimpleName());
+        exception.setStatusCode(400);
+        exception.setServiceName("AWSRoute53Resolver");
+        return exception;
+    }
+}
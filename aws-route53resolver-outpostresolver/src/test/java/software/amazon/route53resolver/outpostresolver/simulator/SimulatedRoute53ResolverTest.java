@@ -0,0 +1,159 @@
+package software.amazon.route53resolver.outpostresolver.simulator;
+
+import com.amazonaws.services.route53resolver.model.CreateOutpostResolverRequest;
+import com.amazonaws.services.route53resolver.model.DeleteOutpostResolverRequest;
+import com.amazonaws.services.route53resolver.model.GetOutpostResolverRequest;
+import com.amazonaws.services.route53resolver.model.ListTagsForResourceRequest;
+import com.amazonaws.services.route53resolver.model.ListTagsForResourceResult;
+import com.amazonaws.services.route53resolver.model.OutpostResolver;
+import com.amazonaws.services.route53resolver.model.OutpostResolverStatus;
+import com.amazonaws.services.route53resolver.model.ResourceNotFoundException;
+import com.amazonaws.services.route53resolver.model.Tag;
+import com.amazonaws.services.route53resolver.model.ThrottlingException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.OperationStatus;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.route53resolver.outpostresolver.CallbackContext;
+import software.amazon.route53resolver.outpostresolver.CreateHandler;
+import software.amazon.route53resolver.outpostresolver.ExponentialBackoffPollingPolicy;
+import software.amazon.route53resolver.outpostresolver.InvocationPoller;
+import software.amazon.route53resolver.outpostresolver.ResourceModel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SimulatedRoute53ResolverTest {
+
+    private static final String OUTPOST_ARN = "arn:aws:outposts:us-west-2:123456789012:outpost/op-123";
+
+    private SimulatedClock clock;
+
+    @BeforeEach
+    public void setup() {
+        clock = new SimulatedClock(1_000_000L);
+    }
+
+    @Test
+    public void testCreateAndDeleteLifecycle() {
+        final SimulatedRoute53Resolver simulator = simulator(SimulatorConfig.builder());
+
+        final OutpostResolver created = simulator.createOutpostResolver(createRequest("token")).getOutpostResolver();
+        assertThat(created.getStatus()).isEqualTo(OutpostResolverStatus.CREATING.toString());
+        assertThat(simulator.createOutpostResolver(createRequest("token")).getOutpostResolver().getId()).isEqualTo(created.getId());
+
+        clock.advance(120_000L);
+        assertThat(get(simulator, created.getId()).getStatus()).isEqualTo(OutpostResolverStatus.OPERATIONAL.toString());
+
+        assertThat(simulator.deleteOutpostResolver(new DeleteOutpostResolverRequest().withId(created.getId()))
+                .getOutpostResolver().getStatus()).isEqualTo(OutpostResolverStatus.DELETING.toString());
+        clock.advance(60_000L);
+        assertThatThrownBy(() -> get(simulator, created.getId())).isInstanceOf(ResourceNotFoundException.class);
+        assertThat(simulator.getCallCount("GetOutpostResolver")).isEqualTo(2);
+    }
+
+    @Test
+    public void testFailureOutcomes() {
+        final SimulatedRoute53Resolver simulator = simulator(SimulatorConfig.builder().failedCreationRate(1.0));
+
+        final String id = simulator.createOutpostResolver(createRequest("token")).getOutpostResolver().getId();
+        clock.advance(120_000L);
+
+        final OutpostResolver failed = get(simulator, id);
+        assertThat(failed.getStatus()).isEqualTo(OutpostResolverStatus.FAILED_CREATION.toString());
+        assertThat(failed.getStatusMessage()).isNotNull();
+    }
+
+    @Test
+    public void testTagsArePaginated() {
+        final SimulatedRoute53Resolver simulator = simulator(SimulatorConfig.builder().tagPageSize(2));
+        final List<Tag> tags = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            tags.add(new Tag().withKey("key-" + i).withValue("value-" + i));
+        }
+        final String arn = simulator.createOutpostResolver(createRequest("token").withTags(tags)).getOutpostResolver().getArn();
+
+        final List<Tag> listed = new ArrayList<>();
+        String nextToken = null;
+        int pages = 0;
+        do {
+            final ListTagsForResourceResult page = simulator.listTagsForResource(
+                    new ListTagsForResourceRequest().withResourceArn(arn).withNextToken(nextToken));
+            listed.addAll(page.getTags());
+            nextToken = page.getNextToken();
+            pages++;
+        } while (nextToken != null);
+
+        assertThat(listed).containsExactlyElementsOf(tags);
+        assertThat(pages).isEqualTo(3);
+    }
+
+    @Test
+    public void testThrottlingAndLatency() {
+        final SimulatedRoute53Resolver simulator = simulator(SimulatorConfig.builder()
+                .throttleRate("GetOutpostResolver", 1.0)
+                .latency("CreateOutpostResolver", LatencyDistribution.fixed(250L)));
+
+        final String id = simulator.createOutpostResolver(createRequest("token")).getOutpostResolver().getId();
+
+        assertThat(clock.getAsLong()).isEqualTo(1_000_250L);
+        assertThatThrownBy(() -> get(simulator, id)).isInstanceOf(ThrottlingException.class);
+        assertThat(simulator.getThrottleCount("GetOutpostResolver")).isEqualTo(1);
+    }
+
+    @Test
+    public void testSameSeedSameIds() {
+        final String first = simulator(SimulatorConfig.builder()).createOutpostResolver(createRequest("token")).getOutpostResolver().getId();
+        final String second = simulator(SimulatorConfig.builder()).createOutpostResolver(createRequest("token")).getOutpostResolver().getId();
+
+        assertThat(first).isEqualTo(second);
+    }
+
+    @Test
+    public void testCreateHandlerAgainstSimulator() {
+        final SimulatedRoute53Resolver simulator = simulator(SimulatorConfig.builder());
+        final CreateHandler handler = new CreateHandler(new ExponentialBackoffPollingPolicy(), new InvocationPoller(false, 0L));
+        final PassThroughClientProxy proxy = new PassThroughClientProxy();
+        final Logger logger = message -> { };
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(ResourceModel.builder().name("simulated").instanceCount(4).outpostArn(OUTPOST_ARN).build())
+                .clientRequestToken("token")
+                .build();
+
+        ProgressEvent<ResourceModel, CallbackContext> event = handler.doHandleRequest(proxy, request, null, logger, simulator);
+        int invocations = 1;
+        while (event.isInProgress()) {
+            clock.advance(event.getCallbackDelaySeconds() * 1000L);
+            event = handler.doHandleRequest(proxy, request, event.getCallbackContext(), logger, simulator);
+            invocations++;
+        }
+
+        assertThat(event.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(event.getResourceModel().getStatus()).isEqualTo(OutpostResolverStatus.OPERATIONAL.toString());
+        assertThat(simulator.getCallCount("CreateOutpostResolver")).isEqualTo(1);
+        assertThat(simulator.getCallCount("GetOutpostResolver")).isEqualTo(invocations - 1);
+        assertThat(simulator.getCallCount("ListTagsForResource")).isEqualTo(1);
+    }
+
+    private SimulatedRoute53Resolver simulator(final SimulatorConfig.SimulatorConfigBuilder config) {
+        return new SimulatedRoute53Resolver(config.clock(clock).sleeper(clock).build());
+    }
+
+    private static CreateOutpostResolverRequest createRequest(final String token) {
+        return new CreateOutpostResolverRequest()
+                .withCreatorRequestId(token)
+                .withName("simulated")
+                .withInstanceCount(4)
+                .withOutpostArn(OUTPOST_ARN)
+                .withPreferredInstanceType("m5.large");
+    }
+
+    private static OutpostResolver get(final SimulatedRoute53Resolver simulator, final String id) {
+        return simulator.getOutpostResolver(new GetOutpostResolverRequest().withId(id)).getOutpostResolver();
+    }
+}
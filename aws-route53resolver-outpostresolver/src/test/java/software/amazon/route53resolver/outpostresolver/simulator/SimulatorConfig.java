@@ -0,0 +1,85 @@
+package software.amazon.route53resolver.outpostresolver.simulator;
+
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+
+import java.util.Map;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+
+@Value
+@Builder
+public class SimulatorConfig {
+
+    @Builder.Default
+    long seed = 42L;
+
+    @Builder.Default
+    String region = "us-west-2";
+
+    @Builder.Default
+    String accountId = "123456789012";
+
+    //keyed by operation name, e.g. GetOutpostResolver, operations without an entry use defaultLatency
+    @Singular("latency")
+    Map<String, LatencyDistribution> latencies;
+
+    @Builder.Default
+    LatencyDistribution defaultLatency = LatencyDistribution.none();
+
+    //fraction of calls to each operation answered with ThrottlingException, before any state changes
+    @Singular("throttleRate")
+    Map<String, Double> throttleRates;
+
+    @Builder.Default
+    double defaultThrottleRate = 0.0;
+
+    @Builder.Default
+    long createMillis = 120_000L;
+
+    @Builder.Default
+    long updateMillis = 60_000L;
+
+    @Builder.Default
+    long deleteMillis = 60_000L;
+
+    //outcome odds once a transition finishes, everything else settles on the happy path
+    @Builder.Default
+    double actionNeededRate = 0.0;
+
+    @Builder.Default
+    double failedCreationRate = 0.0;
+
+    @Builder.Default
+    double failedDeletionRate = 0.0;
+
+    @Builder.Default
+    int tagPageSize = 100;
+
+    @Builder.Default
+    LongSupplier clock = System::currentTimeMillis;
+
+    //applies the sampled latency, a real sleep by default or a SimulatedClock to run in virtual time
+    @Builder.Default
+    LongConsumer sleeper = SimulatorConfig::sleep;
+
+    public LatencyDistribution latencyOf(final String operation) {
+        return latencies.getOrDefault(operation, defaultLatency);
+    }
+
+    public double throttleRateOf(final String operation) {
+        return throttleRates.getOrDefault(operation, defaultThrottleRate);
+    }
+
+    private static void sleep(final long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}